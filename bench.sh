@@ -0,0 +1,29 @@
+#!/bin/bash
+
+echo "Building CCRM benchmarks..."
+
+# Create output directory
+mkdir -p build/bench
+
+# Compile the application and the benchmark harness together
+# (domain/abstract is not a legal package name and is left out)
+echo "Compiling Java source files..."
+javac -d build/bench -cp "src/main/resources" \
+    $(find src/main/java src/bench/java -name '*.java' -not -path '*/abstract/*')
+
+if [ $? -ne 0 ]; then
+    echo "Compilation failed!"
+    exit 1
+fi
+
+# Benchmarks read and write data/ in the working directory, so run them in a scratch one
+BENCH_CLASSES="$(pwd)/build/bench"
+BENCH_RESOURCES="$(pwd)/src/main/resources"
+WORK_DIR=$(mktemp -d)
+trap 'rm -rf "$WORK_DIR"' EXIT
+
+echo "Running benchmarks in $WORK_DIR"
+echo "Usage: ./bench.sh [--sizes 1000,100000,2000000] [--filter regex] [--warmup n] [--iterations n] [--time ms]"
+echo ""
+cd "$WORK_DIR" && java ${BENCH_JAVA_OPTS:--Xmx4g} -cp "$BENCH_CLASSES:$BENCH_RESOURCES" \
+    edu.campus.ccrm.bench.BenchmarkRunner "$@"
@@ -0,0 +1,139 @@
+package edu.campus.ccrm.bench;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Command-line benchmark harness for the CCRM services and file I/O.
+ * For every dataset size it builds a seeded {@link CampusFixture}, then
+ * runs each selected benchmark for a number of timed warmup and
+ * measurement iterations and reports the mean time per operation with its
+ * standard deviation across iterations.
+ *
+ * <p>
+ * Options: {@code --sizes 1000,100000,2000000} (enrollments),
+ * {@code --filter <regex>}, {@code --warmup <iterations>},
+ * {@code --iterations <iterations>}, {@code --time <ms per iteration>} and
+ * {@code --seed <n>}. Run through {@code bench.sh}, which compiles the
+ * harness and runs it in a scratch data directory.
+ */
+public final class BenchmarkRunner {
+    private static final long MIN_BATCH_NANOS = 10_000;
+
+    // Results are compared against this so the JIT cannot discard them
+    private static volatile Object sentinel = new Object();
+    private static volatile long sink;
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int[] sizes = Arrays.stream(options.getOrDefault("sizes", "1000,100000,2000000").split(","))
+                .map(String::trim).mapToInt(Integer::parseInt).toArray();
+        Pattern filter = Pattern.compile(options.getOrDefault("filter", ".*"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "3"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "5"));
+        long iterationNanos = Long.parseLong(options.getOrDefault("time", "1000")) * 1_000_000;
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-45s %13s %4s %14s %12s  %s",
+                "Benchmark", "(enrollments)", "Cnt", "Score", "Error", "Units"));
+
+        for (int size : sizes) {
+            long start = System.nanoTime();
+            CampusFixture fixture = CampusFixture.create(size, seed);
+            System.out.printf("# Dataset: %,d enrollments, %,d students, %,d courses (built in %d ms)%n",
+                    fixture.enrollments.size(), fixture.studentIds.size(), fixture.courses.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+
+            for (Map.Entry<String, CampusBenchmarks.Setup> benchmark : CampusBenchmarks.all().entrySet()) {
+                if (!filter.matcher(benchmark.getKey()).find()) {
+                    continue;
+                }
+                System.out.printf("# Benchmark: %s (enrollments = %d)%n", benchmark.getKey(), size);
+                CampusBenchmarks.Operation operation = benchmark.getValue().prepare(fixture);
+                double[] scores = run(operation, warmup, iterations, iterationNanos);
+                report.add(formatResult(benchmark.getKey(), size, scores));
+            }
+        }
+
+        System.out.println();
+        report.forEach(System.out::println);
+    }
+
+    // Private helper methods
+
+    private static double[] run(CampusBenchmarks.Operation operation, int warmup, int iterations,
+            long iterationNanos) throws Exception {
+        long[] invocation = { 0 };
+        for (int i = 0; i < warmup; i++) {
+            double score = measure(operation, invocation, iterationNanos);
+            System.out.printf("Warmup %d: %s us/op%n", i + 1, formatScore(score));
+        }
+
+        double[] scores = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            scores[i] = measure(operation, invocation, iterationNanos);
+            System.out.printf("Iteration %d: %s us/op%n", i + 1, formatScore(scores[i]));
+        }
+        return scores;
+    }
+
+    /**
+     * Runs the operation for one iteration, in batches that grow until
+     * timing overhead is negligible
+     *
+     * @return the mean time per operation in microseconds
+     */
+    private static double measure(CampusBenchmarks.Operation operation, long[] invocation, long iterationNanos)
+            throws Exception {
+        long operations = 0;
+        long batch = 1;
+        long start = System.nanoTime();
+        long now = start;
+
+        while (now - start < iterationNanos) {
+            long batchStart = now;
+            for (long i = 0; i < batch; i++) {
+                consume(operation.run(invocation[0]++));
+            }
+            operations += batch;
+            now = System.nanoTime();
+            if (now - batchStart < MIN_BATCH_NANOS) {
+                batch *= 2;
+            }
+        }
+        return (now - start) / 1_000.0 / operations;
+    }
+
+    private static void consume(Object result) {
+        if (result == sentinel) {
+            sink++;
+        }
+    }
+
+    private static String formatResult(String name, int size, double[] scores) {
+        double mean = Arrays.stream(scores).average().orElse(Double.NaN);
+        double variance = Arrays.stream(scores).map(score -> (score - mean) * (score - mean)).sum()
+                / Math.max(1, scores.length - 1);
+        return String.format("%-45s %13d %4d %14s %12s  us/op",
+                name, size, scores.length, formatScore(mean), "+- " + formatScore(Math.sqrt(variance)));
+    }
+
+    private static String formatScore(double score) {
+        return String.format(score >= 100 ? "%,.1f" : "%.3f", score);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,123 @@
+package edu.campus.ccrm.bench;
+
+import edu.campus.ccrm.config.ApplicationConfig;
+import edu.campus.ccrm.domain.*;
+import edu.campus.ccrm.domain.enums.Semester;
+import edu.campus.ccrm.exception.InvalidEnrollmentException;
+import edu.campus.ccrm.io.CsvTokenizer;
+import edu.campus.ccrm.util.TranscriptWriter;
+
+import java.io.StringReader;
+import java.util.*;
+
+/**
+ * The benchmarked operations. Each is set up once per dataset size and
+ * then invoked with a running invocation count, which it uses to spread
+ * calls across students, courses and queries.
+ */
+final class CampusBenchmarks {
+    private static final String[] NAME_QUERIES = { "son", "priya", "lee", "garcia", "ana", "kim s", "zz" };
+    private static final String CSV_RECORD =
+            "S0000042-3,S0000042,C00017,FALL 2024,2024-09-01,B_PLUS,COMPLETED,\"Retook after \"\"incomplete\"\",\nsee advisor\"";
+    private static final int FUTURE_YEAR = 3000;
+    private static final int NEW_COURSES_PER_SEMESTER = 5;
+
+    private CampusBenchmarks() {
+    }
+
+    /**
+     * A benchmarked operation; returns a value so the work cannot be
+     * optimized away
+     */
+    interface Operation {
+        Object run(long invocation) throws Exception;
+    }
+
+    /**
+     * A named benchmark and how to set it up against a fixture
+     */
+    interface Setup {
+        Operation prepare(CampusFixture fixture) throws Exception;
+    }
+
+    static Map<String, Setup> all() {
+        Map<String, Setup> benchmarks = new LinkedHashMap<>();
+
+        benchmarks.put("EnrollmentService.validateEnrollment", fixture -> invocation -> {
+            // Re-enrolling an active enrollment runs validation and is rejected without side effects
+            Enrollment active = fixture.activeEnrollments.get((int) (invocation % fixture.activeEnrollments.size()));
+            try {
+                return fixture.enrollmentService.enrollStudent(active.getStudent(),
+                        active.getCourse().getCourseCode(), active.getSemester());
+            } catch (InvalidEnrollmentException e) {
+                return e;
+            }
+        });
+
+        benchmarks.put("EnrollmentService.getEnrollmentsByStudent", fixture -> invocation ->
+                fixture.enrollmentService.getEnrollmentsByStudent(
+                        fixture.studentIds.get((int) (invocation % fixture.studentIds.size()))));
+
+        benchmarks.put("StudentService.searchStudentsByName", fixture -> invocation ->
+                fixture.studentService.searchStudentsByName(NAME_QUERIES[(int) (invocation % NAME_QUERIES.length)]));
+
+        benchmarks.put("TranscriptWriter.render", fixture -> invocation ->
+                TranscriptWriter.render(fixture.student(invocation)));
+
+        benchmarks.put("StudentService.generateTranscript.cached", fixture -> {
+            // Cycles over fewer students than the transcript cache holds, so after
+            // the warm-up pass every call is a hit at any dataset size
+            int cached = Math.max(1, Math.min(fixture.studentIds.size(),
+                    ApplicationConfig.getInstance().getCacheSize() / 2));
+            for (int i = 0; i < cached; i++) {
+                fixture.studentService.generateTranscript(fixture.studentIds.get(i));
+            }
+            return invocation -> fixture.studentService.generateTranscript(
+                    fixture.studentIds.get((int) (invocation % cached)));
+        });
+
+        benchmarks.put("Student.calculateCurrentGPA", fixture -> invocation ->
+                fixture.student(invocation).calculateCurrentGPA());
+
+        benchmarks.put("FileDataManager.exportEnrollmentsToCSV", fixture -> {
+            fixture.fileDataManager.initializeDataDirectory();
+            return invocation -> {
+                fixture.fileDataManager.exportEnrollmentsToCSV(fixture.enrollments);
+                return fixture.enrollments;
+            };
+        });
+
+        benchmarks.put("FileDataManager.importEnrollmentsFromCSV", fixture -> {
+            fixture.fileDataManager.initializeDataDirectory();
+            fixture.fileDataManager.exportEnrollmentsToCSV(fixture.enrollments);
+            return invocation -> fixture.fileDataManager.importEnrollmentsFromCSV(
+                    fixture.studentService, fixture.courseService, new ArrayList<>());
+        });
+
+        benchmarks.put("CsvTokenizer.next", fixture -> {
+            CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(""));
+            return invocation -> {
+                tokenizer.reset(new StringReader(CSV_RECORD));
+                tokenizer.next();
+                return tokenizer.field(tokenizer.fieldCount() - 1);
+            };
+        });
+
+        benchmarks.put("EnrollmentService.enrollStudent", fixture -> {
+            // Every pass over the students enrolls each in another course, in semesters far
+            // enough ahead that they never collide with the fixture's enrollments. Runs last
+            // because it grows the data set the other benchmarks read.
+            int studentCount = fixture.studentIds.size();
+            return invocation -> {
+                long pass = invocation / studentCount;
+                Semester semester = new Semester(FUTURE_YEAR + (int) (pass / NEW_COURSES_PER_SEMESTER / 3),
+                        Semester.Season.values()[(int) (pass / NEW_COURSES_PER_SEMESTER % 3)]);
+                Course course = fixture.introductoryCourses.get((int) (pass % NEW_COURSES_PER_SEMESTER));
+                return fixture.enrollmentService.enrollStudent(fixture.student(invocation),
+                        course.getCourseCode(), semester);
+            };
+        });
+
+        return benchmarks;
+    }
+}
@@ -0,0 +1,66 @@
+package edu.campus.ccrm.bench;
+
+import edu.campus.ccrm.domain.*;
+import edu.campus.ccrm.io.FileDataManager;
+import edu.campus.ccrm.service.*;
+import edu.campus.ccrm.util.DatasetGenerator;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Services loaded with a seeded synthetic campus of roughly a given number
+ * of enrollments, shared by every benchmark run at that size.
+ */
+final class CampusFixture {
+    // Students enter across eight semesters taking about four courses a term
+    private static final int SEMESTERS = 8;
+    private static final int ENROLLMENTS_PER_STUDENT = 18;
+
+    final int size;
+    final StudentService studentService;
+    final CourseService courseService;
+    final EnrollmentService enrollmentService;
+    final FileDataManager fileDataManager;
+    final List<String> studentIds;
+    final List<Course> courses;
+    final List<Course> introductoryCourses;
+    final List<Enrollment> enrollments;
+    final List<Enrollment> activeEnrollments;
+
+    private CampusFixture(int size, long seed) {
+        this.size = size;
+        this.courseService = new CourseService();
+        this.studentService = new StudentService(null);
+        this.enrollmentService = new EnrollmentService(studentService, courseService);
+        this.studentService.setEnrollmentService(enrollmentService);
+        this.fileDataManager = new FileDataManager();
+
+        new DatasetGenerator.Builder()
+                .seed(seed)
+                .students(Math.max(1, size / ENROLLMENTS_PER_STUDENT))
+                .courses(Math.max(80, size / 1000))
+                .semesters(SEMESTERS)
+                .build()
+                .populate(studentService, courseService, enrollmentService);
+
+        this.studentIds = studentService.getAllStudents().stream()
+                .map(Student::getStudentId).collect(Collectors.toList());
+        this.courses = courseService.getAllCourses();
+        this.introductoryCourses = courses.stream()
+                .filter(course -> course.getPrerequisites().isEmpty()).collect(Collectors.toList());
+        this.enrollments = enrollmentService.getAllEnrollments();
+        this.activeEnrollments = enrollmentService.getActiveEnrollments();
+    }
+
+    /**
+     * Builds a campus with roughly the given number of enrollments
+     */
+    static CampusFixture create(int enrollmentCount, long seed) {
+        return new CampusFixture(enrollmentCount, seed);
+    }
+
+    Student student(long invocation) {
+        return studentService.getStudentById(studentIds.get((int) (invocation % studentIds.size())));
+    }
+}
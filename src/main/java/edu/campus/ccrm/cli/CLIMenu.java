@@ -1,13 +1,21 @@
 package edu.campus.ccrm.cli;
 
+import edu.campus.ccrm.config.ApplicationConfig;
 import edu.campus.ccrm.domain.*;
 import edu.campus.ccrm.domain.enums.*;
 import edu.campus.ccrm.service.*;
+import edu.campus.ccrm.io.BackupInfo;
 import edu.campus.ccrm.io.FileDataManager;
+import edu.campus.ccrm.io.MappedDataFile;
+import edu.campus.ccrm.io.TransferReport;
 import edu.campus.ccrm.exception.*;
+import edu.campus.ccrm.metrics.MetricsRegistry;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
@@ -34,13 +42,14 @@ public class CLIMenu {
         this.running = true;
 
         // Initialize services with cross-references
-        StudentService tempStudentService = new StudentService(null);
-        this.enrollmentService = new EnrollmentService(tempStudentService, courseService);
-        this.studentService = new StudentService(enrollmentService);
+        this.studentService = new StudentService(null);
+        this.enrollmentService = new EnrollmentService(studentService, courseService);
+        studentService.setEnrollmentService(enrollmentService);
 
         try {
             fileDataManager.initializeDataDirectory();
             loadInitialData();
+            pruneBackupsInBackground();
         } catch (Exception e) {
             System.err.println("Warning: Could not initialize data directory: " + e.getMessage());
         }
@@ -66,6 +75,12 @@ public class CLIMenu {
             }
         }
 
+        try {
+            fileDataManager.closeJournal();
+        } catch (IOException e) {
+            System.err.println("Warning: Could not close journal: " + e.getMessage());
+        }
+
         System.out.println("Thank you for using CCRM!");
         scanner.close();
     }
@@ -220,18 +235,22 @@ public class CLIMenu {
             System.out.println("2. View Student Profile");
             System.out.println("3. Course Enrollment Report");
             System.out.println("4. GPA Report");
-            System.out.println("5. Back to Main Menu");
+            System.out.println("5. Export Semester Transcripts");
+            System.out.println("6. Course Enrollment Report (Last Export)");
+            System.out.println("7. Back to Main Menu");
             System.out.println("=".repeat(30));
-            System.out.print("Enter your choice (1-5): ");
+            System.out.print("Enter your choice (1-7): ");
 
-            int choice = getValidIntegerInput(1, 5);
+            int choice = getValidIntegerInput(1, 7);
 
             switch (choice) {
                 case 1 -> generateTranscript();
                 case 2 -> viewStudentProfile();
                 case 3 -> courseEnrollmentReport();
                 case 4 -> gpaReport();
-                case 5 -> {
+                case 5 -> exportSemesterTranscripts();
+                case 6 -> exportedCourseEnrollmentReport();
+                case 7 -> {
                     return;
                 }
             }
@@ -302,9 +321,36 @@ public class CLIMenu {
      * System Statistics Menu
      */
     private void systemStatisticsMenu() {
+        while (true) {
+            System.out.println("\n" + "=".repeat(30));
+            System.out.println("SYSTEM STATISTICS");
+            System.out.println("=".repeat(30));
+            System.out.println("1. Data Statistics");
+            System.out.println("2. Operation Metrics");
+            System.out.println("3. Dump Operation Metrics to File");
+            System.out.println("4. Reset Operation Metrics");
+            System.out.println("5. Back to Main Menu");
+            System.out.println("=".repeat(30));
+            System.out.print("Enter your choice (1-5): ");
+
+            int choice = getValidIntegerInput(1, 5);
+
+            switch (choice) {
+                case 1 -> showDataStatistics();
+                case 2 -> showOperationMetrics();
+                case 3 -> dumpOperationMetrics();
+                case 4 -> resetOperationMetrics();
+                case 5 -> {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void showDataStatistics() {
         try {
             System.out.println("\n" + "=".repeat(40));
-            System.out.println("SYSTEM STATISTICS");
+            System.out.println("DATA STATISTICS");
             System.out.println("=".repeat(40));
 
             Map<String, Object> studentStats = studentService.getStudentStatistics();
@@ -329,12 +375,76 @@ public class CLIMenu {
             System.out.printf("  Completed Enrollments: %d%n", enrollmentStats.get("completedEnrollments"));
             System.out.printf("  Average Grade: %.2f%n", enrollmentStats.get("averageGrade"));
 
+            Map<String, Object> checkpointStats = fileDataManager.getCheckpointStatistics();
+            if (!checkpointStats.isEmpty()) {
+                System.out.println("\nCHECKPOINT STATISTICS:");
+                System.out.printf("  Deltas Written: %d%n", checkpointStats.get("deltasWritten"));
+                System.out.printf("  Compactions: %d%n", checkpointStats.get("compactions"));
+                System.out.printf("  Pending Changes: %d%n", checkpointStats.get("pendingChanges"));
+            }
+
+            Map<String, Object> cacheStats = new TreeMap<>(studentService.getCacheStatistics());
+            cacheStats.putAll(enrollmentService.getCacheStatistics());
+            System.out.println("\nCACHE STATISTICS:");
+            cacheStats.forEach(this::printCacheStatistics);
+
         } catch (Exception e) {
             System.err.println("Error generating statistics: " + e.getMessage());
         }
 
-        System.out.println("\nPress Enter to continue...");
-        scanner.nextLine();
+        pauseForInput();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void printCacheStatistics(String cache, Object statistics) {
+        Map<String, Object> stats = (Map<String, Object>) statistics;
+        if (!(Boolean) stats.get("enabled")) {
+            System.out.printf("  %s: disabled%n", cache);
+            return;
+        }
+        System.out.printf("  %s: %d/%d entries, %d hits, %d misses (%.1f%% hit rate), %d evicted, %d expired%n",
+                cache, stats.get("size"), stats.get("maxSize"), stats.get("hits"), stats.get("misses"),
+                (Double) stats.get("hitRate") * 100, stats.get("evictions"), stats.get("expirations"));
+    }
+
+    /**
+     * Shows call counts and latency percentiles for every service and file
+     * operation called since startup or the last reset
+     */
+    private void showOperationMetrics() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        System.out.println("\n--- Operation Metrics (latencies in microseconds) ---");
+
+        if (!metrics.isEnabled()) {
+            System.out.println("Metrics are disabled (metrics.enabled=false).");
+        } else if (metrics.getStatistics().isEmpty()) {
+            System.out.println("No operations recorded yet.");
+        } else {
+            System.out.print(metrics.formatReport());
+        }
+
+        pauseForInput();
+    }
+
+    private void dumpOperationMetrics() {
+        try {
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
+            Path file = Paths.get(ApplicationConfig.getInstance().getDataDirectory(),
+                    "metrics_" + timestamp + ".txt");
+            MetricsRegistry.getInstance().dumpToFile(file);
+            System.out.println("Operation metrics written to: " + file);
+
+        } catch (Exception e) {
+            System.err.println("Error writing operation metrics: " + e.getMessage());
+        }
+
+        pauseForInput();
+    }
+
+    private void resetOperationMetrics() {
+        MetricsRegistry.getInstance().reset();
+        System.out.println("Operation metrics reset.");
+        pauseForInput();
     }
 
     // Student Management Methods
@@ -635,7 +745,7 @@ public class CLIMenu {
     private void searchCourses() {
         try {
             System.out.println("\n--- Search Courses ---");
-            String searchTerm = getStringInput("Enter search term (name or description): ");
+            String searchTerm = getStringInput("Enter search terms (name, description, department or instructor): ");
 
             List<Course> courses = courseService.searchCoursesByName(searchTerm);
 
@@ -829,26 +939,59 @@ public class CLIMenu {
         pauseForInput();
     }
 
+    private void exportSemesterTranscripts() {
+        try {
+            System.out.println("\n--- Export Semester Transcripts ---");
+            String input = getStringInput("Enter Semester (e.g. Fall 2024, or press Enter for the current semester): ");
+
+            Semester semester;
+            if (input.isEmpty()) {
+                semester = Semester.current();
+            } else {
+                String[] parts = input.split("\\s+");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Expected a season and a year, e.g. Fall 2024");
+                }
+                semester = new Semester(Integer.parseInt(parts[1]), parts[0]);
+            }
+
+            TransferReport report = fileDataManager.exportTranscripts(studentService, enrollmentService, semester);
+            System.out.println("Transcripts exported for " + semester + ":");
+            System.out.print(report);
+
+        } catch (Exception e) {
+            System.err.println("Error exporting transcripts: " + e.getMessage());
+        }
+
+        pauseForInput();
+    }
+
     private void courseEnrollmentReport() {
         try {
             System.out.println("\n--- Course Enrollment Report ---");
             String courseCode = getStringInput("Enter Course Code: ");
 
-            List<Enrollment> enrollments = enrollmentService.getEnrollmentsByCourse(courseCode);
+            printCourseEnrollments(courseCode, enrollmentService.getEnrollmentsByCourse(courseCode));
 
-            if (enrollments.isEmpty()) {
-                System.out.println("No enrollments found for course: " + courseCode);
-            } else {
-                System.out.println("Enrollments for " + courseCode + ":");
-                System.out.println("-".repeat(60));
-                enrollments.forEach(enrollment -> {
-                    System.out.printf("%-20s %-15s %s%n",
-                            enrollment.getStudent().getFirstName() + " " + enrollment.getStudent().getLastName(),
-                            enrollment.getSemester(),
-                            enrollment.getGrade() != null ? enrollment.getGrade() : "In Progress");
-                });
-            }
+        } catch (Exception e) {
+            System.err.println("Error generating course enrollment report: " + e.getMessage());
+        }
 
+        pauseForInput();
+    }
+
+    /**
+     * Course enrollment report read from the memory-mapped data file of
+     * the last full export, without touching the live services
+     */
+    private void exportedCourseEnrollmentReport() {
+        System.out.println("\n--- Course Enrollment Report (Last Export) ---");
+        String courseCode = getStringInput("Enter Course Code: ");
+
+        try (MappedDataFile dataFile = fileDataManager.openMappedDataFile()) {
+            printCourseEnrollments(courseCode, dataFile.getCourseRoster(courseCode));
+        } catch (DataImportException e) {
+            System.err.println("No exported data to report on; export all data first.");
         } catch (Exception e) {
             System.err.println("Error generating course enrollment report: " + e.getMessage());
         }
@@ -856,6 +999,21 @@ public class CLIMenu {
         pauseForInput();
     }
 
+    private void printCourseEnrollments(String courseCode, List<Enrollment> enrollments) {
+        if (enrollments.isEmpty()) {
+            System.out.println("No enrollments found for course: " + courseCode);
+        } else {
+            System.out.println("Enrollments for " + courseCode + ":");
+            System.out.println("-".repeat(60));
+            enrollments.forEach(enrollment -> {
+                System.out.printf("%-20s %-15s %s%n",
+                        enrollment.getStudent().getFirstName() + " " + enrollment.getStudent().getLastName(),
+                        enrollment.getSemester(),
+                        enrollment.getGrade() != null ? enrollment.getGrade() : "In Progress");
+            });
+        }
+    }
+
     private void gpaReport() {
         try {
             System.out.println("\n--- GPA Report ---");
@@ -894,10 +1052,7 @@ public class CLIMenu {
                 }
                 case 3 -> {
                     int topN = getValidIntegerInput(1, 100, "Enter number of top students to show: ");
-                    List<Student> topStudents = studentService.getAllStudents().stream()
-                            .sorted((s1, s2) -> Double.compare(s2.calculateCurrentGPA(), s1.calculateCurrentGPA()))
-                            .limit(topN)
-                            .collect(Collectors.toList());
+                    List<Student> topStudents = studentService.getTopStudentsByGPA(topN);
 
                     System.out.printf("\nTop %d Students by GPA:%n", topN);
                     System.out.println("-".repeat(40));
@@ -924,11 +1079,15 @@ public class CLIMenu {
             System.out.println("\n--- Export All Data ---");
             System.out.println("Exporting all data to CSV files...");
 
-            fileDataManager.exportStudentsToCSV(studentService.getAllStudents());
-            fileDataManager.exportCoursesToCSV(courseService.getAllCourses());
-            fileDataManager.exportEnrollmentsToCSV(enrollmentService.getAllEnrollments());
+            TransferReport report = fileDataManager.exportAllDataParallel(studentService, courseService,
+                    enrollmentService);
 
             System.out.println("All data exported successfully!");
+            System.out.print(report);
+
+            // Refresh the data file the last-export reports are read from
+            int records = fileDataManager.exportMappedDataFile(studentService, courseService, enrollmentService);
+            System.out.println("Reporting data file updated (" + records + " records).");
 
         } catch (Exception e) {
             System.err.println("Error exporting data: " + e.getMessage());
@@ -942,15 +1101,14 @@ public class CLIMenu {
             System.out.println("\n--- Import Data ---");
             System.out.println("Importing data from CSV files...");
 
-            List<Student> students = fileDataManager.importStudentsFromCSV();
-            List<Course> courses = fileDataManager.importCoursesFromCSV();
-            List<Enrollment> enrollments = fileDataManager.importEnrollmentsFromCSV();
-
-            System.out.printf("Imported %d students, %d courses, and %d enrollments.%n",
-                    students.size(), courses.size(), enrollments.size());
+            TransferReport report = fileDataManager.importAllData(studentService, courseService,
+                    enrollmentService);
 
-            // Note: In a real application, you'd need to populate the services with the
-            // imported data
+            System.out.println("Data imported successfully!");
+            System.out.print(report);
+            report.getErrors().stream()
+                    .limit(10)
+                    .forEach(error -> System.err.println("  " + error));
 
         } catch (Exception e) {
             System.err.println("Error importing data: " + e.getMessage());
@@ -1005,8 +1163,13 @@ public class CLIMenu {
             System.out.println("\n--- Create Backup ---");
             System.out.println("Creating backup...");
 
-            fileDataManager.createBackup();
+            Map<String, Object> stats = fileDataManager.createBackup(studentService, courseService, enrollmentService);
             System.out.println("Backup created successfully!");
+            System.out.printf("%d files, %d chunks (%d new): %d KB written of %d KB backed up%n",
+                    stats.get("files"), stats.get("chunks"), stats.get("newChunks"),
+                    (long) stats.get("bytesWritten") / 1024, (long) stats.get("totalBytes") / 1024);
+
+            pruneBackupsInBackground();
 
         } catch (Exception e) {
             System.err.println("Error creating backup: " + e.getMessage());
@@ -1031,12 +1194,14 @@ public class CLIMenu {
             }
 
             int choice = getValidIntegerInput(1, backups.size(), "Select backup to restore: ");
-            String backupDate = backups.get(choice - 1);
+            String backupName = backups.get(choice - 1);
 
-            String confirm = getStringInput("Are you sure you want to restore from " + backupDate + "? (yes/no): ");
+            String confirm = getStringInput("Are you sure you want to restore from " + backupName + "? (yes/no): ");
             if ("yes".equalsIgnoreCase(confirm)) {
-                fileDataManager.restoreFromBackup(backupDate);
-                System.out.println("Data restored successfully!");
+                Map<String, Integer> counts = fileDataManager.restoreFromBackup(backupName, studentService,
+                        courseService, enrollmentService);
+                System.out.printf("Data restored successfully (%d students, %d courses, %d enrollments).%n",
+                        counts.get("students"), counts.get("courses"), counts.get("enrollments"));
             } else {
                 System.out.println("Restore cancelled.");
             }
@@ -1052,7 +1217,7 @@ public class CLIMenu {
         try {
             System.out.println("\n--- Available Backups ---");
 
-            List<String> backups = fileDataManager.listAvailableBackups();
+            List<BackupInfo> backups = fileDataManager.getBackupIndex();
             if (backups.isEmpty()) {
                 System.out.println("No backups available.");
             } else {
@@ -1067,6 +1232,18 @@ public class CLIMenu {
         pauseForInput();
     }
 
+    /**
+     * Prunes expired backups without blocking the menu, reporting only
+     * failures
+     */
+    private void pruneBackupsInBackground() {
+        fileDataManager.pruneBackupsInBackground().whenComplete((stats, error) -> {
+            if (error != null) {
+                System.err.println("Warning: Could not prune old backups: " + error.getMessage());
+            }
+        });
+    }
+
     // Utility Methods
 
     private String getStringInput(String prompt) {
@@ -1123,17 +1300,32 @@ public class CLIMenu {
     }
 
     private void loadInitialData() {
-        // Load initial data from files if they exist
+        // Load initial data from the binary snapshot, or from the CSV files when there is none,
+        // then replay any checkpointed and journaled changes made since
         try {
-            List<Student> students = fileDataManager.importStudentsFromCSV();
-            List<Course> courses = fileDataManager.importCoursesFromCSV();
-            List<Enrollment> enrollments = fileDataManager.importEnrollmentsFromCSV();
-
-            // Note: In a real application, you'd populate the services with this data
-            System.out.println("Initial data loaded successfully.");
+            List<String> errors = new ArrayList<>();
+            Map<String, Integer> counts = fileDataManager.recoverData(studentService, courseService,
+                    enrollmentService, errors);
+
+            System.out.printf("Initial data loaded successfully (%d students, %d courses, %d enrollments, "
+                    + "%d journal records replayed).%n", counts.get("students"), counts.get("courses"),
+                    counts.get("enrollments"), counts.get("journal"));
+            if (!errors.isEmpty()) {
+                System.err.println("Skipped " + errors.size() + " unreadable rows:");
+                errors.stream()
+                        .limit(10)
+                        .forEach(error -> System.err.println("  " + error));
+            }
 
         } catch (Exception e) {
             System.out.println("No initial data found or error loading data: " + e.getMessage());
         }
+
+        try {
+            fileDataManager.openJournal(studentService, courseService, enrollmentService);
+        } catch (Exception e) {
+            System.err.println("Warning: Could not open journal, changes will not survive a crash: "
+                    + e.getMessage());
+        }
     }
 }
@@ -64,6 +64,24 @@ public class ApplicationConfig {
         properties.setProperty("default.date.format", "yyyy-MM-dd");
         properties.setProperty("csv.separator", ",");
         properties.setProperty("backup.retention.days", "30");
+        properties.setProperty("backup.compression.enabled", "true");
+        properties.setProperty("backup.retention.gfs.enabled", "true");
+        properties.setProperty("backup.retention.daily", "7");
+        properties.setProperty("backup.retention.weekly", "4");
+        properties.setProperty("backup.retention.monthly", "12");
+        properties.setProperty("journal.enabled", "true");
+        properties.setProperty("journal.sync.commit", "true");
+        properties.setProperty("journal.fsync.interval.ms", "10");
+        properties.setProperty("journal.fsync.batch.size", "64");
+        properties.setProperty("journal.segment.size.mb", "64");
+        properties.setProperty("checkpoint.enabled", "true");
+        properties.setProperty("checkpoint.interval.seconds", "5");
+        properties.setProperty("checkpoint.dirty.threshold", "10000");
+        properties.setProperty("checkpoint.compact.ratio", "0.5");
+        properties.setProperty("metrics.enabled", "true");
+        properties.setProperty("cache.enabled", "true");
+        properties.setProperty("cache.size", "1000");
+        properties.setProperty("cache.ttl.minutes", "60");
     }
 
     /**
@@ -158,4 +176,76 @@ public class ApplicationConfig {
     public int getBackupRetentionDays() {
         return getIntProperty("backup.retention.days", 30);
     }
+
+    public boolean isBackupCompressionEnabled() {
+        return getBooleanProperty("backup.compression.enabled", true);
+    }
+
+    public boolean isBackupRetentionGfsEnabled() {
+        return getBooleanProperty("backup.retention.gfs.enabled", true);
+    }
+
+    public int getBackupRetentionDaily() {
+        return getIntProperty("backup.retention.daily", 7);
+    }
+
+    public int getBackupRetentionWeekly() {
+        return getIntProperty("backup.retention.weekly", 4);
+    }
+
+    public int getBackupRetentionMonthly() {
+        return getIntProperty("backup.retention.monthly", 12);
+    }
+
+    public boolean isJournalEnabled() {
+        return getBooleanProperty("journal.enabled", true);
+    }
+
+    public boolean isJournalSyncCommit() {
+        return getBooleanProperty("journal.sync.commit", true);
+    }
+
+    public int getJournalFsyncIntervalMillis() {
+        return getIntProperty("journal.fsync.interval.ms", 10);
+    }
+
+    public int getJournalFsyncBatchSize() {
+        return getIntProperty("journal.fsync.batch.size", 64);
+    }
+
+    public int getJournalSegmentSizeMb() {
+        return getIntProperty("journal.segment.size.mb", 64);
+    }
+
+    public boolean isCheckpointEnabled() {
+        return getBooleanProperty("checkpoint.enabled", true);
+    }
+
+    public int getCheckpointIntervalSeconds() {
+        return getIntProperty("checkpoint.interval.seconds", 5);
+    }
+
+    public int getCheckpointDirtyThreshold() {
+        return getIntProperty("checkpoint.dirty.threshold", 10000);
+    }
+
+    public double getCheckpointCompactRatio() {
+        return getDoubleProperty("checkpoint.compact.ratio", 0.5);
+    }
+
+    public boolean isMetricsEnabled() {
+        return getBooleanProperty("metrics.enabled", true);
+    }
+
+    public boolean isCacheEnabled() {
+        return getBooleanProperty("cache.enabled", true);
+    }
+
+    public int getCacheSize() {
+        return getIntProperty("cache.size", 1000);
+    }
+
+    public int getCacheTtlMinutes() {
+        return getIntProperty("cache.ttl.minutes", 60);
+    }
 }
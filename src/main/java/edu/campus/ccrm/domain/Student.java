@@ -22,6 +22,8 @@ public final class Student {
     private final StudentStatus status;
     private final Set<Enrollment> enrollments;
     private final Map<String, Double> gpaHistory;
+    private final Map<Semester, SemesterTotals> semesterTotals;
+    private final int totalCreditsEarned;
 
     // Private constructor for Builder pattern
     private Student(Builder builder) {
@@ -36,6 +38,19 @@ public final class Student {
         this.status = builder.status;
         this.enrollments = Collections.unmodifiableSet(new HashSet<>(builder.enrollments));
         this.gpaHistory = Collections.unmodifiableMap(new HashMap<>(builder.gpaHistory));
+
+        // Aggregate once so GPA and credit reads don't re-stream enrollments
+        Map<Semester, SemesterTotals> totals = new HashMap<>();
+        int creditsEarned = 0;
+        for (Enrollment enrollment : enrollments) {
+            totals.computeIfAbsent(enrollment.getSemester(), k -> new SemesterTotals()).add(enrollment);
+            Grade grade = enrollment.getGrade();
+            if (grade != null && grade.isPassing()) {
+                creditsEarned += enrollment.getCourse().getCredits();
+            }
+        }
+        this.semesterTotals = totals;
+        this.totalCreditsEarned = creditsEarned;
     }
 
     // Getters (immutable access)
@@ -84,30 +99,49 @@ public final class Student {
     }
 
     /**
-     * Calculates current GPA using Stream API and functional programming
+     * Calculates current GPA from the precomputed semester totals
      */
     public double calculateCurrentGPA() {
-        return enrollments.stream()
-                .filter(e -> e.getGrade() != null && e.getGrade() != Grade.INCOMPLETE)
-                .filter(e -> e.getSemester().equals(getCurrentSemester()))
-                .mapToDouble(e -> e.getGrade().getNumericValue())
-                .average()
-                .orElse(0.0);
+        SemesterTotals totals = semesterTotals.get(Semester.current());
+        return totals != null && totals.gradedCount > 0 ? totals.gradePointSum / totals.gradedCount : 0.0;
+    }
+
+    /**
+     * Calculates the credit-weighted GPA for a semester
+     */
+    public double calculateSemesterGPA(Semester semester) {
+        SemesterTotals totals = semesterTotals.get(semester);
+        return totals != null && totals.gpaCredits > 0 ? totals.qualityPoints / totals.gpaCredits : 0.0;
+    }
+
+    /**
+     * Returns a copy of this student with the given enrollment added, or
+     * replacing the enrollment with the same ID
+     */
+    public Student withEnrollment(Enrollment enrollment) {
+        Set<Enrollment> updated = new HashSet<>(enrollments);
+        updated.remove(enrollment);
+        updated.add(enrollment);
+        return withEnrollments(updated);
     }
 
     /**
-     * Gets current semester using date logic
+     * Returns a copy of this student with the given set of enrollments
      */
-    private Semester getCurrentSemester() {
-        LocalDate now = LocalDate.now();
-        int year = now.getYear();
-        int month = now.getMonthValue();
-
-        if (month >= 1 && month <= 5)
-            return new Semester(year, "SPRING");
-        if (month >= 6 && month <= 8)
-            return new Semester(year, "SUMMER");
-        return new Semester(year, "FALL");
+    public Student withEnrollments(Collection<Enrollment> enrollments) {
+        return new Builder()
+                .studentId(studentId)
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(email)
+                .phoneNumber(phoneNumber)
+                .address(address)
+                .dateOfBirth(dateOfBirth)
+                .enrollmentDate(enrollmentDate)
+                .status(status)
+                .enrollments(new HashSet<>(enrollments))
+                .gpaHistory(gpaHistory)
+                .build();
     }
 
     /**
@@ -122,13 +156,10 @@ public final class Student {
     }
 
     /**
-     * Gets total credits earned using Stream API
+     * Gets total credits earned
      */
     public int getTotalCreditsEarned() {
-        return enrollments.stream()
-                .filter(e -> e.getGrade() != null && e.getGrade().isPassing())
-                .mapToInt(e -> e.getCourse().getCredits())
-                .sum();
+        return totalCreditsEarned;
     }
 
     /**
@@ -140,11 +171,36 @@ public final class Student {
     }
 
     private int getCurrentSemesterCredits() {
-        return enrollments.stream()
-                .filter(e -> e.getSemester().equals(getCurrentSemester()))
-                .filter(e -> e.getGrade() == null || e.getGrade() == Grade.INCOMPLETE)
-                .mapToInt(e -> e.getCourse().getCredits())
-                .sum();
+        SemesterTotals totals = semesterTotals.get(Semester.current());
+        return totals != null ? totals.inProgressCredits : 0;
+    }
+
+    /**
+     * Per-semester grade and credit sums, built once per Student instance
+     */
+    private static final class SemesterTotals {
+        private double gradePointSum;
+        private int gradedCount;
+        private double qualityPoints;
+        private int gpaCredits;
+        private int inProgressCredits;
+
+        void add(Enrollment enrollment) {
+            Grade grade = enrollment.getGrade();
+            int credits = enrollment.getCourse().getCredits();
+
+            if (grade == null || grade == Grade.INCOMPLETE) {
+                inProgressCredits += credits;
+            }
+            if (grade != null && grade != Grade.INCOMPLETE) {
+                gradePointSum += grade.getNumericValue();
+                gradedCount++;
+            }
+            if (grade != null && grade.countsTowardsGPA()) {
+                qualityPoints += enrollment.getQualityPoints();
+                gpaCredits += credits;
+            }
+        }
     }
 
     /**
@@ -25,6 +25,25 @@ public final class Semester implements Comparable<Semester> {
         return season;
     }
 
+    /**
+     * Gets the semester containing the given date
+     */
+    public static Semester of(java.time.LocalDate date) {
+        int month = date.getMonthValue();
+        if (month <= 5)
+            return new Semester(date.getYear(), Season.SPRING);
+        if (month <= 8)
+            return new Semester(date.getYear(), Season.SUMMER);
+        return new Semester(date.getYear(), Season.FALL);
+    }
+
+    /**
+     * Gets the current semester using date logic
+     */
+    public static Semester current() {
+        return of(java.time.LocalDate.now());
+    }
+
     /**
      * Gets the next semester in sequence
      */
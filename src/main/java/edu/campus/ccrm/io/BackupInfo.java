@@ -0,0 +1,53 @@
+package edu.campus.ccrm.io;
+
+import java.time.LocalDateTime;
+
+/**
+ * An entry in the backup index: a backup's name, creation time and the
+ * total size of the files it holds.
+ */
+public final class BackupInfo {
+    private final String name;
+    private final LocalDateTime created;
+    private final long sizeBytes;
+    private final boolean chunked;
+
+    BackupInfo(String name, LocalDateTime created, long sizeBytes, boolean chunked) {
+        this.name = name;
+        this.created = created;
+        this.sizeBytes = sizeBytes;
+        this.chunked = chunked;
+    }
+
+    /**
+     * Gets the name used to restore the backup
+     */
+    public String getName() {
+        return name;
+    }
+
+    public LocalDateTime getCreated() {
+        return created;
+    }
+
+    /**
+     * Gets the size of the backed-up files, before deduplication and
+     * compression
+     */
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    /**
+     * Checks whether the backup is stored as chunks rather than full copies
+     */
+    public boolean isChunked() {
+        return chunked;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s, %d KB%s)", name, created.toLocalDate(), sizeBytes / 1024,
+                chunked ? "" : ", full copy");
+    }
+}
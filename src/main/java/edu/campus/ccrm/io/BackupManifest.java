@@ -0,0 +1,124 @@
+package edu.campus.ccrm.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Manifest of a chunked backup: for each file, its size, SHA-256 and the
+ * ordered list of chunks it is made of.
+ *
+ * <p>
+ * Stored as tab-separated text, one {@code file} line per file followed by
+ * one {@code chunk} line per chunk.
+ */
+final class BackupManifest {
+    static final String FILE_NAME = "chunks.manifest";
+
+    private static final String HEADER = "# CCRM chunk manifest v1";
+
+    private final List<FileEntry> files = new ArrayList<>();
+
+    void addFile(FileEntry entry) {
+        files.add(entry);
+    }
+
+    List<FileEntry> getFiles() {
+        return files;
+    }
+
+    /**
+     * Writes the manifest to a temporary file and moves it into place, so a
+     * backup only appears once all of its chunks are stored
+     */
+    void write(Path filePath) throws IOException {
+        Path tempPath = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+
+        try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (FileEntry entry : files) {
+                writer.write("file\t" + entry.name + "\t" + entry.size + "\t" + entry.sha256);
+                writer.newLine();
+                for (int i = 0; i < entry.chunkHashes.size(); i++) {
+                    writer.write("chunk\t" + entry.chunkHashes.get(i) + "\t" + entry.chunkLengths.get(i));
+                    writer.newLine();
+                }
+            }
+        }
+
+        Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static BackupManifest read(Path filePath) throws IOException {
+        BackupManifest manifest = new BackupManifest();
+
+        try (BufferedReader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())) {
+                throw new IOException("Not a chunk manifest: " + filePath);
+            }
+
+            FileEntry current = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (fields[0].equals("file") && fields.length == 4) {
+                    current = new FileEntry(fields[1]);
+                    current.setSha256(fields[3]);
+                    manifest.addFile(current);
+                } else if (fields[0].equals("chunk") && fields.length == 3 && current != null) {
+                    current.addChunk(fields[1], Integer.parseInt(fields[2]));
+                } else if (!line.isBlank()) {
+                    throw new IOException("Malformed manifest line in " + filePath + ": " + line);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed chunk length in " + filePath, e);
+        }
+        return manifest;
+    }
+
+    /**
+     * A backed-up file and its chunks
+     */
+    static final class FileEntry {
+        private final String name;
+        private final List<String> chunkHashes = new ArrayList<>();
+        private final List<Integer> chunkLengths = new ArrayList<>();
+        private long size;
+        private String sha256;
+
+        FileEntry(String name) {
+            this.name = name;
+        }
+
+        void addChunk(String hash, int length) {
+            chunkHashes.add(hash);
+            chunkLengths.add(length);
+            size += length;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        String getSha256() {
+            return sha256;
+        }
+
+        void setSha256(String sha256) {
+            this.sha256 = sha256;
+        }
+
+        List<String> getChunkHashes() {
+            return chunkHashes;
+        }
+    }
+}
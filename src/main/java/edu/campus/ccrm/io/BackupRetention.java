@@ -0,0 +1,126 @@
+package edu.campus.ccrm.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Decides which backups have expired and reclaims the chunks only they
+ * referenced.
+ *
+ * <p>
+ * A backup is kept while it is younger than the retention period. With
+ * the grandfather-father-son policy enabled, the newest backup of each of
+ * the last {@code daily} days, {@code weekly} ISO weeks and {@code monthly}
+ * months that have backups is kept as well, however old. The newest
+ * backup is never pruned.
+ */
+final class BackupRetention {
+    private final int retentionDays;
+    private final boolean grandfatherFatherSon;
+    private final int daily;
+    private final int weekly;
+    private final int monthly;
+
+    BackupRetention(int retentionDays, boolean grandfatherFatherSon, int daily, int weekly, int monthly) {
+        this.retentionDays = retentionDays;
+        this.grandfatherFatherSon = grandfatherFatherSon;
+        this.daily = daily;
+        this.weekly = weekly;
+        this.monthly = monthly;
+    }
+
+    /**
+     * Selects the backups the policy no longer keeps
+     */
+    List<BackupInfo> selectExpired(List<BackupInfo> backups, LocalDateTime now) {
+        List<BackupInfo> newestFirst = new ArrayList<>(backups);
+        newestFirst.sort(Comparator.comparing(BackupInfo::getCreated).reversed());
+
+        Set<BackupInfo> keep = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (!newestFirst.isEmpty()) {
+            keep.add(newestFirst.get(0));
+        }
+
+        LocalDateTime cutoff = now.minusDays(retentionDays);
+        newestFirst.stream().filter(backup -> backup.getCreated().isAfter(cutoff)).forEach(keep::add);
+
+        if (grandfatherFatherSon) {
+            keep.addAll(newestPerPeriod(newestFirst, backup -> backup.getCreated().toLocalDate(), daily));
+            keep.addAll(newestPerPeriod(newestFirst, backup -> List.of(
+                    backup.getCreated().get(IsoFields.WEEK_BASED_YEAR),
+                    backup.getCreated().get(IsoFields.WEEK_OF_WEEK_BASED_YEAR)), weekly));
+            keep.addAll(newestPerPeriod(newestFirst, backup -> YearMonth.from(backup.getCreated()), monthly));
+        }
+
+        return newestFirst.stream().filter(backup -> !keep.contains(backup)).collect(Collectors.toList());
+    }
+
+    /**
+     * Deletes, in parallel across the fan-out directories, every chunk that
+     * no remaining manifest references. Callers must hold off new backups
+     * while this runs.
+     *
+     * @return the number of chunks deleted and the bytes freed
+     */
+    static long[] collectGarbage(Path chunkDirectory, Set<String> referenced) throws IOException {
+        if (!Files.isDirectory(chunkDirectory)) {
+            return new long[] { 0, 0 };
+        }
+
+        AtomicLong chunks = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        List<Path> fanOut;
+        try (Stream<Path> dirs = Files.list(chunkDirectory)) {
+            fanOut = dirs.filter(Files::isDirectory).collect(Collectors.toList());
+        }
+
+        try {
+            fanOut.parallelStream().forEach(dir -> {
+                try (Stream<Path> files = Files.list(dir)) {
+                    for (Path chunk : (Iterable<Path>) files::iterator) {
+                        String name = chunk.getFileName().toString();
+                        int dot = name.indexOf('.');
+                        String hash = dot < 0 ? name : name.substring(0, dot);
+                        if (!referenced.contains(hash) || name.endsWith(".tmp")) {
+                            long size = Files.size(chunk);
+                            if (Files.deleteIfExists(chunk)) {
+                                chunks.incrementAndGet();
+                                bytes.addAndGet(size);
+                            }
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return new long[] { chunks.get(), bytes.get() };
+    }
+
+    private static List<BackupInfo> newestPerPeriod(List<BackupInfo> newestFirst,
+            Function<BackupInfo, Object> period, int count) {
+        Set<Object> seen = new HashSet<>();
+        List<BackupInfo> kept = new ArrayList<>();
+        for (BackupInfo backup : newestFirst) {
+            if (seen.size() >= count) {
+                break;
+            }
+            if (seen.add(period.apply(backup))) {
+                kept.add(backup);
+            }
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,164 @@
+package edu.campus.ccrm.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Decoder matching {@link BinaryWriter}.
+ * Symbols are collected into a table as they are first seen, so later
+ * references resolve to the same String instance.
+ */
+final class BinaryReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private final List<String> symbols = new ArrayList<>();
+    private final CRC32 crc = new CRC32();
+    private byte[] scratch = new byte[256];
+    private int position;
+    private int limit;
+    private int crcMark;
+
+    BinaryReader(InputStream in) {
+        this(in, BUFFER_SIZE);
+    }
+
+    BinaryReader(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+    }
+
+    int readByte() throws IOException {
+        if (position == limit && !fill()) {
+            throw new EOFException("Unexpected end of data");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * Checks whether any input is left
+     */
+    boolean hasMore() throws IOException {
+        return position < limit || fill();
+    }
+
+    int readInt() throws IOException {
+        return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+    }
+
+    long readVarLong() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    int readVarInt() throws IOException {
+        long value = readVarLong();
+        if ((value >>> 32) != 0) {
+            throw new IOException("Varint out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    long readSignedVarLong() throws IOException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    String readString() throws IOException {
+        int length = readVarInt();
+        return length == 0 ? null : readUtf8(length - 1);
+    }
+
+    String readSymbol() throws IOException {
+        int code = readVarInt();
+        if (code == 0) {
+            return null;
+        }
+        if (code == 1) {
+            String value = readUtf8(readVarInt());
+            symbols.add(value);
+            return value;
+        }
+        int index = code - 2;
+        if (index >= symbols.size()) {
+            throw new IOException("Unknown symbol " + index);
+        }
+        return symbols.get(index);
+    }
+
+    LocalDate readDate() throws IOException {
+        long value = readVarLong();
+        if (value == 0) {
+            return null;
+        }
+        value -= 1;
+        return LocalDate.ofEpochDay((value >>> 1) ^ -(value & 1));
+    }
+
+    <E extends Enum<E>> E readEnum(E[] values) throws IOException {
+        int code = readVarInt();
+        if (code == 0) {
+            return null;
+        }
+        if (code > values.length) {
+            throw new IOException("Unknown " + values[0].getDeclaringClass().getSimpleName() + " ordinal " + (code - 1));
+        }
+        return values[code - 1];
+    }
+
+    void readFully(byte[] bytes, int length) throws IOException {
+        int copied = 0;
+        while (copied < length) {
+            if (position == limit && !fill()) {
+                throw new EOFException("Unexpected end of data");
+            }
+            int count = Math.min(length - copied, limit - position);
+            System.arraycopy(buffer, position, bytes, copied, count);
+            position += count;
+            copied += count;
+        }
+    }
+
+    /**
+     * Gets the CRC-32 of everything read so far
+     */
+    int checksum() {
+        crc.update(buffer, crcMark, position - crcMark);
+        crcMark = position;
+        return (int) crc.getValue();
+    }
+
+    private String readUtf8(int length) throws IOException {
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        readFully(scratch, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private boolean fill() throws IOException {
+        crc.update(buffer, crcMark, limit - crcMark);
+        crcMark = 0;
+        position = 0;
+        limit = 0;
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+}
@@ -0,0 +1,163 @@
+package edu.campus.ccrm.io;
+
+import edu.campus.ccrm.domain.*;
+import edu.campus.ccrm.service.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Versioned binary snapshot of students, courses and enrollments.
+ *
+ * <p>
+ * Layout: a 4-byte magic number, a varint format version and a varint
+ * sequence number (from version 2), followed by tagged records (courses, then students, then enrollments) and an end tag
+ * with a CRC-32 of everything before it. IDs, course codes, departments and
+ * instructors go through a symbol table, dates are stored as epoch days and
+ * enums as ordinals, so loading needs no text parsing at all. Enum
+ * constants must therefore only ever be appended, never reordered.
+ *
+ * <p>
+ * Records are upserts, so a snapshot can hold a full dataset or just the
+ * records that changed since an earlier one. The sequence number orders
+ * them: a checkpoint delta carries its own index and a full snapshot the
+ * index of the last delta folded into it.
+ */
+public final class BinarySnapshot {
+    static final int MAGIC = 0x43435253; // "CCRS"
+    static final int VERSION = 2;
+
+    private static final int END_TAG = 0;
+    private static final int COURSE_TAG = 1;
+    private static final int STUDENT_TAG = 2;
+    private static final int ENROLLMENT_TAG = 3;
+
+    private BinarySnapshot() {
+    }
+
+    /**
+     * Writes a snapshot to a temporary file, forces it to disk and then
+     * moves it over the target, so readers never see a partial snapshot
+     *
+     * @param sequence the sequence number recorded in the header
+     * @return the number of records written
+     */
+    public static int write(Path filePath, long sequence, Collection<Course> courses, Collection<Student> students,
+            Collection<Enrollment> enrollments) throws IOException {
+        Path tempPath = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        int records = 0;
+
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            BinaryWriter writer = new BinaryWriter(out);
+            writer.writeInt(MAGIC);
+            writer.writeVarInt(VERSION);
+            writer.writeVarLong(sequence);
+
+            for (Course course : courses) {
+                writer.writeByte(COURSE_TAG);
+                RecordCodec.writeCourse(writer, course);
+                records++;
+            }
+            for (Student student : students) {
+                writer.writeByte(STUDENT_TAG);
+                RecordCodec.writeStudent(writer, student);
+                records++;
+            }
+            for (Enrollment enrollment : enrollments) {
+                writer.writeByte(ENROLLMENT_TAG);
+                RecordCodec.writeEnrollment(writer, enrollment);
+                records++;
+            }
+
+            writer.writeByte(END_TAG);
+            writer.writeInt(writer.checksum());
+            writer.flush();
+            channel.force(true);
+        }
+
+        Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return records;
+    }
+
+    /**
+     * Reads the sequence number from a snapshot's header
+     *
+     * @return the sequence number, which is 0 for a version 1 snapshot, as
+     *         those predate checkpoint deltas
+     */
+    public static long readSequence(Path filePath) throws IOException {
+        try (InputStream in = Files.newInputStream(filePath)) {
+            BinaryReader reader = new BinaryReader(in);
+            return readHeader(reader, filePath);
+        }
+    }
+
+    /**
+     * Reads a snapshot straight into the services. Enrollments are loaded
+     * without validation; callers attach them to their students with
+     * {@link StudentService#attachEnrollments} once all snapshots are read.
+     *
+     * @return the number of students, courses and enrollments read
+     */
+    public static Map<String, Integer> read(Path filePath, StudentService studentService,
+            CourseService courseService, EnrollmentService enrollmentService) throws IOException {
+        int students = 0;
+        int courses = 0;
+        int enrollments = 0;
+
+        try (InputStream in = Files.newInputStream(filePath)) {
+            BinaryReader reader = new BinaryReader(in);
+            readHeader(reader, filePath);
+
+            int tag;
+            while ((tag = reader.readByte()) != END_TAG) {
+                switch (tag) {
+                    case COURSE_TAG -> {
+                        courseService.addCourse(RecordCodec.readCourse(reader));
+                        courses++;
+                    }
+                    case STUDENT_TAG -> {
+                        studentService.addStudent(RecordCodec.readStudent(reader));
+                        students++;
+                    }
+                    case ENROLLMENT_TAG -> {
+                        enrollmentService.loadEnrollment(
+                                RecordCodec.readEnrollment(reader, studentService, courseService));
+                        enrollments++;
+                    }
+                    default -> throw new IOException("Unknown record tag " + tag + " in " + filePath);
+                }
+            }
+
+            int expected = reader.checksum();
+            if (reader.readInt() != expected) {
+                throw new IOException("Checksum mismatch in " + filePath);
+            }
+        }
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("students", students);
+        counts.put("courses", courses);
+        counts.put("enrollments", enrollments);
+        return counts;
+    }
+
+    // Private helper methods
+
+    private static long readHeader(BinaryReader reader, Path filePath) throws IOException {
+        if (reader.readInt() != MAGIC) {
+            throw new IOException("Not a snapshot file: " + filePath);
+        }
+        int version = reader.readVarInt();
+        if (version > VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + " in " + filePath);
+        }
+        return version >= 2 ? reader.readVarLong() : 0;
+    }
+}
@@ -0,0 +1,169 @@
+package edu.campus.ccrm.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Low-level encoder for the binary data formats.
+ * Integers are written as LEB128 varints (zigzag for signed values), dates
+ * as epoch days and strings as UTF-8 with a varint length. Repeated values
+ * can go through a symbol table that is built as the stream is written, so
+ * the first occurrence is stored inline and later ones as a small index.
+ */
+final class BinaryWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private final Map<String, Integer> symbols = new HashMap<>();
+    private final CRC32 crc = new CRC32();
+    private int position;
+    private int crcMark;
+    private long bytesWritten;
+
+    BinaryWriter(OutputStream out) {
+        this(out, BUFFER_SIZE);
+    }
+
+    BinaryWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Forgets all symbols, so the next output can be decoded on its own
+     */
+    void resetSymbols() {
+        symbols.clear();
+    }
+
+    void writeByte(int value) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    void writeInt(int value) throws IOException {
+        writeByte(value >>> 24);
+        writeByte(value >>> 16);
+        writeByte(value >>> 8);
+        writeByte(value);
+    }
+
+    void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    void writeVarInt(int value) throws IOException {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    void writeSignedVarLong(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Writes a string that may be null
+     */
+    void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        writeBytes(bytes);
+    }
+
+    /**
+     * Writes a string that is likely to repeat through the symbol table.
+     * 0 is null, 1 introduces a new symbol, n >= 2 refers to symbol n - 2.
+     */
+    void writeSymbol(String value) throws IOException {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        Integer index = symbols.get(value);
+        if (index != null) {
+            writeVarInt(index + 2);
+            return;
+        }
+        symbols.put(value, symbols.size());
+        writeVarInt(1);
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        writeBytes(bytes);
+    }
+
+    /**
+     * Writes a date that may be null as a zigzag epoch day
+     */
+    void writeDate(LocalDate date) throws IOException {
+        if (date == null) {
+            writeVarInt(0);
+        } else {
+            long epochDay = date.toEpochDay();
+            writeVarLong(((epochDay << 1) ^ (epochDay >> 63)) + 1);
+        }
+    }
+
+    /**
+     * Writes an enum constant that may be null as its ordinal plus one
+     */
+    void writeEnum(Enum<?> value) throws IOException {
+        writeVarInt(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    void writeBytes(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            flushBuffer();
+            if (bytes.length > buffer.length) {
+                crc.update(bytes);
+                out.write(bytes);
+                bytesWritten += bytes.length;
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    /**
+     * Gets the number of bytes written so far, including buffered ones
+     */
+    long size() {
+        return bytesWritten + position;
+    }
+
+    /**
+     * Gets the CRC-32 of everything written so far
+     */
+    int checksum() {
+        crc.update(buffer, crcMark, position - crcMark);
+        crcMark = position;
+        return (int) crc.getValue();
+    }
+
+    void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        crc.update(buffer, crcMark, position - crcMark);
+        crcMark = 0;
+        out.write(buffer, 0, position);
+        bytesWritten += position;
+        position = 0;
+    }
+}
@@ -0,0 +1,337 @@
+package edu.campus.ccrm.io;
+
+import edu.campus.ccrm.domain.*;
+import edu.campus.ccrm.service.*;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Background checkpointer that keeps the binary snapshot close to the
+ * in-memory services without pausing writers.
+ *
+ * <p>
+ * As a {@link MutationListener} it keeps the latest version of every
+ * changed record, keyed by ID. Records are immutable, so those versions
+ * form a consistent delta without locking the services. On each run it
+ * writes that delta as a small snapshot file in the checkpoint directory;
+ * once the deltas together reach {@code compactRatio} of the base
+ * snapshot's size, it writes a new base instead and deletes them, so the
+ * cost of a checkpoint tracks the changes rather than the dataset. Each
+ * delta records its index and each base the last index folded into it,
+ * so recovery never depends on file times.
+ *
+ * <p>
+ * With a journal, each checkpoint rotates it first and deletes the
+ * segments the checkpoint has made redundant.
+ */
+public final class Checkpointer implements MutationListener, Closeable {
+    private static final String DELTA_PREFIX = "delta-";
+    private static final String DELTA_SUFFIX = ".bin";
+
+    private final Path snapshotPath;
+    private final Path deltaDirectory;
+    private final Journal journal;
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+    private final int dirtyThreshold;
+    private final double compactRatio;
+
+    private final Map<String, Student> dirtyStudents = new ConcurrentHashMap<>();
+    private final Map<String, Course> dirtyCourses = new ConcurrentHashMap<>();
+    private final Map<String, Enrollment> dirtyEnrollments = new ConcurrentHashMap<>();
+    private final AtomicInteger changesSinceCheckpoint = new AtomicInteger();
+    private final AtomicBoolean earlyRunPending = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+
+    private long nextDeltaIndex;
+    private boolean paused;
+    private int deltaCount;
+    private int compactionCount;
+
+    private Checkpointer(Path snapshotPath, Path deltaDirectory, Journal journal, StudentService studentService,
+            CourseService courseService, EnrollmentService enrollmentService, long intervalMillis,
+            int dirtyThreshold, double compactRatio) throws IOException {
+        this.snapshotPath = snapshotPath;
+        this.deltaDirectory = deltaDirectory;
+        this.journal = journal;
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+        this.dirtyThreshold = Math.max(1, dirtyThreshold);
+        this.compactRatio = compactRatio;
+
+        Files.createDirectories(deltaDirectory);
+        long baseSequence = Files.exists(snapshotPath) ? BinarySnapshot.readSequence(snapshotPath) : 0;
+        this.nextDeltaIndex = Math.max(lastDeltaIndex(deltaDirectory), baseSequence) + 1;
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runCheckpoint, intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts checkpointing on a fixed interval. The caller registers the
+     * checkpointer with the services.
+     *
+     * @param journal the journal to truncate after each checkpoint, or null
+     */
+    public static Checkpointer start(Path snapshotPath, Path deltaDirectory, Journal journal,
+            StudentService studentService, CourseService courseService, EnrollmentService enrollmentService,
+            long intervalMillis, int dirtyThreshold, double compactRatio) throws IOException {
+        return new Checkpointer(snapshotPath, deltaDirectory, journal, studentService, courseService,
+                enrollmentService, intervalMillis, dirtyThreshold, compactRatio);
+    }
+
+    // Mutation listener
+
+    @Override
+    public void studentChanged(Operation operation, Student student) {
+        dirtyStudents.put(student.getStudentId(), student);
+        changed();
+    }
+
+    @Override
+    public void courseChanged(Operation operation, Course course) {
+        dirtyCourses.put(course.getCourseCode(), course);
+        changed();
+    }
+
+    @Override
+    public void enrollmentChanged(Operation operation, Enrollment enrollment) {
+        dirtyEnrollments.put(enrollment.getEnrollmentId(), enrollment);
+        changed();
+    }
+
+    // Checkpoints
+
+    /**
+     * Writes the changes since the last checkpoint, compacting into a new
+     * base snapshot when the deltas have grown large enough
+     *
+     * @return the number of records written
+     */
+    public synchronized int checkpoint() throws IOException {
+        if (paused) {
+            return 0;
+        }
+        if (!Files.exists(snapshotPath) || deltaSize() >= compactRatio * Files.size(snapshotPath)) {
+            return compact();
+        }
+        if (dirtyStudents.isEmpty() && dirtyCourses.isEmpty() && dirtyEnrollments.isEmpty()) {
+            return 0;
+        }
+
+        long firstSegment = journal != null ? journal.rotate() : 0;
+        changesSinceCheckpoint.set(0);
+        Map<String, Student> students = new HashMap<>(dirtyStudents);
+        Map<String, Course> courses = new HashMap<>(dirtyCourses);
+        Map<String, Enrollment> enrollments = new HashMap<>(dirtyEnrollments);
+
+        int written = BinarySnapshot.write(deltaPath(deltaDirectory, nextDeltaIndex), nextDeltaIndex,
+                courses.values(), students.values(), enrollments.values());
+        nextDeltaIndex++;
+        deltaCount++;
+
+        clean(dirtyStudents, students);
+        clean(dirtyCourses, courses);
+        clean(dirtyEnrollments, enrollments);
+        if (journal != null) {
+            journal.deleteSegmentsBefore(firstSegment);
+        }
+        return written;
+    }
+
+    /**
+     * Writes every record to a new base snapshot and deletes the deltas it
+     * supersedes
+     *
+     * @return the number of records written
+     */
+    public synchronized int compact() throws IOException {
+        long firstSegment = journal != null ? journal.rotate() : 0;
+        changesSinceCheckpoint.set(0);
+        Map<String, Student> students = new HashMap<>(dirtyStudents);
+        Map<String, Course> courses = new HashMap<>(dirtyCourses);
+        Map<String, Enrollment> enrollments = new HashMap<>(dirtyEnrollments);
+
+        int written = BinarySnapshot.write(snapshotPath, nextDeltaIndex - 1, courseService.getAllCourses(),
+                studentService.getAllStudents(), enrollmentService.getAllEnrollments());
+        for (long index : listDeltas(deltaDirectory)) {
+            Files.deleteIfExists(deltaPath(deltaDirectory, index));
+        }
+        compactionCount++;
+
+        clean(dirtyStudents, students);
+        clean(dirtyCourses, courses);
+        clean(dirtyEnrollments, enrollments);
+        if (journal != null) {
+            journal.deleteSegmentsBefore(firstSegment);
+        }
+        return written;
+    }
+
+    /**
+     * Holds off checkpoints while the services are being replaced
+     * wholesale, waiting for a running one to finish
+     */
+    public synchronized void pause() {
+        paused = true;
+    }
+
+    /**
+     * Resumes checkpoints after the services were replaced, forgetting the
+     * changes recorded before and writing a new base snapshot
+     *
+     * @return the number of records written
+     */
+    public synchronized int resume() throws IOException {
+        dirtyStudents.clear();
+        dirtyCourses.clear();
+        dirtyEnrollments.clear();
+        paused = false;
+        return compact();
+    }
+
+    /**
+     * Resumes checkpoints after a replacement of the services failed,
+     * keeping the changes recorded so far
+     */
+    public synchronized void cancelPause() {
+        paused = false;
+    }
+
+    /**
+     * Gets checkpoint statistics
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("deltasWritten", deltaCount);
+        stats.put("compactions", compactionCount);
+        stats.put("pendingChanges", dirtyStudents.size() + dirtyCourses.size() + dirtyEnrollments.size());
+        return stats;
+    }
+
+    /**
+     * Stops the schedule and writes a final checkpoint
+     */
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        checkpoint();
+    }
+
+    // Recovery
+
+    /**
+     * Applies the delta files written after the base snapshot to the
+     * services, in order. Deltas up to the base's sequence number were
+     * already folded into it by a compaction that stopped before deleting
+     * them.
+     *
+     * @return the number of records applied
+     */
+    public static int applyDeltas(Path deltaDirectory, Path snapshotPath, StudentService studentService,
+            CourseService courseService, EnrollmentService enrollmentService) throws IOException {
+        long baseSequence = Files.exists(snapshotPath) ? BinarySnapshot.readSequence(snapshotPath) : 0;
+        int applied = 0;
+
+        for (long index : listDeltas(deltaDirectory)) {
+            if (index <= baseSequence) {
+                continue;
+            }
+            Map<String, Integer> counts = BinarySnapshot.read(deltaPath(deltaDirectory, index), studentService,
+                    courseService, enrollmentService);
+            applied += counts.values().stream().mapToInt(Integer::intValue).sum();
+        }
+        return applied;
+    }
+
+    /**
+     * Gets the index of the newest delta in a checkpoint directory, so a
+     * base snapshot written without a checkpointer can record that it
+     * covers them
+     *
+     * @return the index, or 0 when there are no deltas
+     */
+    public static long lastDeltaIndex(Path deltaDirectory) throws IOException {
+        List<Long> existing = listDeltas(deltaDirectory);
+        return existing.isEmpty() ? 0 : existing.get(existing.size() - 1);
+    }
+
+    // Private helper methods
+
+    private void changed() {
+        if (changesSinceCheckpoint.incrementAndGet() >= dirtyThreshold && earlyRunPending.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::runCheckpoint);
+            } catch (RuntimeException e) {
+                earlyRunPending.set(false); // Shutting down; close() writes the final checkpoint
+            }
+        }
+    }
+
+    private void runCheckpoint() {
+        earlyRunPending.set(false);
+        try {
+            checkpoint();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Warning: Checkpoint failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drops the written entries that have not changed again since they
+     * were copied. Records compare equal by ID alone, so a newer version
+     * is told apart by identity.
+     */
+    private static <T> void clean(Map<String, T> dirty, Map<String, T> written) {
+        written.forEach((id, record) -> dirty.computeIfPresent(id,
+                (key, current) -> current == record ? null : current));
+    }
+
+    private long deltaSize() throws IOException {
+        long total = 0;
+        for (long index : listDeltas(deltaDirectory)) {
+            total += Files.size(deltaPath(deltaDirectory, index));
+        }
+        return total;
+    }
+
+    private static List<Long> listDeltas(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(DELTA_PREFIX) && name.endsWith(DELTA_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(DELTA_PREFIX.length(),
+                            name.length() - DELTA_SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static Path deltaPath(Path directory, long index) {
+        return directory.resolve(String.format("%s%010d%s", DELTA_PREFIX, index, DELTA_SUFFIX));
+    }
+}
@@ -0,0 +1,240 @@
+package edu.campus.ccrm.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content-addressed store of file chunks, used for deduplicated backups.
+ *
+ * <p>
+ * Files are split at content-defined boundaries found with a Gear rolling
+ * hash, so an insertion or edit only changes the chunks around it and the
+ * rest of the file still produces the same chunks. Boundaries use FastCDC's
+ * normalized chunking: a stricter mask before the average size and a looser
+ * one after it keep most chunks close to 8 KB. Each chunk is stored once,
+ * named by its SHA-256, under a two-character fan-out directory.
+ *
+ * <p>
+ * With compression on, chunks are deflated and stored with a {@code .z}
+ * suffix, unless deflating would not make them smaller. The hash is always
+ * of the uncompressed bytes, so compressed and uncompressed backups share
+ * chunks and either kind restores regardless of the current setting.
+ */
+final class ChunkStore {
+    static final int MIN_CHUNK_SIZE = 2 * 1024;
+    static final int AVG_CHUNK_SIZE = 8 * 1024;
+    static final int MAX_CHUNK_SIZE = 64 * 1024;
+
+    // Top bits of the hash depend on the last 64 bytes; the low bits only on the last few
+    private static final long STRICT_MASK = -1L << (64 - 15);
+    private static final long LOOSE_MASK = -1L << (64 - 11);
+
+    // Fixed seed: chunk boundaries must never change between versions
+    private static final long[] GEAR = new SplittableRandom(0x43435253_4745_4152L).longs(256).toArray();
+    private static final HexFormat HEX = HexFormat.of();
+    private static final String COMPRESSED_SUFFIX = ".z";
+
+    private final Path directory;
+    private final boolean compress;
+    private final AtomicLong chunksWritten = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    ChunkStore(Path directory, boolean compress) {
+        this.directory = directory;
+        this.compress = compress;
+    }
+
+    /**
+     * Splits a file into chunks and stores the ones not already present.
+     * Safe to call for several files at once.
+     *
+     * @return the file's manifest entry
+     */
+    BackupManifest.FileEntry storeFile(Path filePath) throws IOException {
+        MessageDigest fileDigest = sha256();
+        MessageDigest chunkDigest = sha256();
+        Deflater deflater = compress ? new Deflater(Deflater.DEFAULT_COMPRESSION) : null;
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(AVG_CHUNK_SIZE);
+        BackupManifest.FileEntry entry = new BackupManifest.FileEntry(filePath.getFileName().toString());
+
+        byte[] buffer = new byte[2 * MAX_CHUNK_SIZE];
+        int start = 0;
+        int end = 0;
+        boolean eof = false;
+
+        try (InputStream in = Files.newInputStream(filePath)) {
+            while (true) {
+                // Keep at least one maximum-size chunk buffered so the cut point is never truncated
+                if (!eof && end - start < MAX_CHUNK_SIZE) {
+                    System.arraycopy(buffer, start, buffer, 0, end - start);
+                    end -= start;
+                    start = 0;
+                    int read;
+                    while (end < buffer.length && (read = in.read(buffer, end, buffer.length - end)) != -1) {
+                        end += read;
+                    }
+                    eof = end < buffer.length;
+                }
+                if (start == end) {
+                    break;
+                }
+
+                int length = cutPoint(buffer, start, end - start);
+                fileDigest.update(buffer, start, length);
+                chunkDigest.update(buffer, start, length);
+                String hash = HEX.formatHex(chunkDigest.digest());
+                storeChunk(hash, buffer, start, length, deflater, compressed);
+                entry.addChunk(hash, length);
+                start += length;
+            }
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+
+        entry.setSha256(HEX.formatHex(fileDigest.digest()));
+        return entry;
+    }
+
+    /**
+     * Streams a file's chunks into an output stream, inflating compressed
+     * chunks on the way, and verifies the file's hash
+     */
+    void restoreFile(BackupManifest.FileEntry entry, OutputStream out) throws IOException {
+        MessageDigest fileDigest = sha256();
+        OutputStream digestOut = new DigestOutputStream(out, fileDigest);
+
+        for (String hash : entry.getChunkHashes()) {
+            Path chunkPath = chunkPath(hash);
+            Path compressedPath = compressedPath(chunkPath);
+            if (Files.exists(compressedPath)) {
+                try (InputStream in = new InflaterInputStream(Files.newInputStream(compressedPath))) {
+                    in.transferTo(digestOut);
+                }
+            } else if (Files.exists(chunkPath)) {
+                try (InputStream in = Files.newInputStream(chunkPath)) {
+                    in.transferTo(digestOut);
+                }
+            } else {
+                throw new IOException("Missing backup chunk " + hash + " for " + entry.getName());
+            }
+        }
+
+        if (!HEX.formatHex(fileDigest.digest()).equals(entry.getSha256())) {
+            throw new IOException("Checksum mismatch restoring " + entry.getName());
+        }
+    }
+
+    long getChunksWritten() {
+        return chunksWritten.get();
+    }
+
+    long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    /**
+     * Finds the next chunk boundary in a buffer
+     *
+     * @return the length of the chunk starting at offset
+     */
+    static int cutPoint(byte[] buffer, int offset, int length) {
+        if (length <= MIN_CHUNK_SIZE) {
+            return length;
+        }
+
+        int limit = Math.min(length, MAX_CHUNK_SIZE);
+        int normal = Math.min(limit, AVG_CHUNK_SIZE);
+        long hash = 0;
+        int i = MIN_CHUNK_SIZE;
+
+        for (; i < normal; i++) {
+            hash = (hash << 1) + GEAR[buffer[offset + i] & 0xFF];
+            if ((hash & STRICT_MASK) == 0) {
+                return i + 1;
+            }
+        }
+        for (; i < limit; i++) {
+            hash = (hash << 1) + GEAR[buffer[offset + i] & 0xFF];
+            if ((hash & LOOSE_MASK) == 0) {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    // Private helper methods
+
+    private void storeChunk(String hash, byte[] buffer, int offset, int length, Deflater deflater,
+            ByteArrayOutputStream compressed) throws IOException {
+        Path chunkPath = chunkPath(hash);
+        if (Files.exists(chunkPath) || Files.exists(compressedPath(chunkPath))) {
+            return;
+        }
+
+        if (deflater != null) {
+            compressed.reset();
+            deflate(deflater, buffer, offset, length, compressed);
+            if (compressed.size() < length) {
+                chunkPath = compressedPath(chunkPath);
+                buffer = compressed.toByteArray();
+                offset = 0;
+                length = buffer.length;
+            }
+        }
+
+        Files.createDirectories(chunkPath.getParent());
+        Path tempPath = Files.createTempFile(chunkPath.getParent(), hash, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tempPath)) {
+                out.write(buffer, offset, length);
+            }
+            Files.move(tempPath, chunkPath, StandardCopyOption.ATOMIC_MOVE);
+            chunksWritten.incrementAndGet();
+            bytesWritten.addAndGet(length);
+        } catch (FileAlreadyExistsException e) {
+            // Stored concurrently by another backup
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    private static void deflate(Deflater deflater, byte[] buffer, int offset, int length,
+            ByteArrayOutputStream out) {
+        byte[] block = new byte[4096];
+        deflater.reset();
+        deflater.setInput(buffer, offset, length);
+        deflater.finish();
+        while (!deflater.finished()) {
+            out.write(block, 0, deflater.deflate(block));
+        }
+    }
+
+    private Path chunkPath(String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static Path compressedPath(Path chunkPath) {
+        return chunkPath.resolveSibling(chunkPath.getFileName() + COMPRESSED_SUFFIX);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
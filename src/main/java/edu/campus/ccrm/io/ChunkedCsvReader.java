@@ -0,0 +1,231 @@
+package edu.campus.ccrm.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * Parses one large CSV file in parallel.
+ * The file is split into byte ranges that end on record boundaries (line
+ * breaks outside quoted fields), each range is tokenized on a fork-join
+ * pool, and the chunk results are merged back in file order. Rows that
+ * fail to map are reported per chunk with their line number instead of
+ * being printed.
+ */
+public class ChunkedCsvReader {
+    private static final long MIN_CHUNK_BYTES = 1024 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int SCAN_BUFFER_SIZE = 256 * 1024;
+
+    private final int parallelism;
+
+    public ChunkedCsvReader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ChunkedCsvReader(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Maps every record after the header line
+     *
+     * @param mapper turns the current record into a value, throwing on bad
+     *               data; it may be called from several threads at once
+     */
+    public <T> Result<T> read(Path filePath, Function<CsvTokenizer, T> mapper) throws IOException {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            List<Chunk> chunks = split(channel);
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+            try {
+                List<ForkJoinTask<ChunkResult<T>>> tasks = new ArrayList<>(chunks.size());
+                for (Chunk chunk : chunks) {
+                    tasks.add(pool.submit(() -> parseChunk(channel, chunk, mapper)));
+                }
+
+                Result<T> result = new Result<>(chunks.size());
+                for (ForkJoinTask<ChunkResult<T>> task : tasks) {
+                    result.merge(task.join());
+                }
+                return result;
+            } catch (RuntimeException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw e;
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Finds chunk boundaries with a single byte scan. Quote characters
+     * toggle the in-quotes state (a doubled quote toggles twice), so line
+     * breaks inside quoted fields are never chosen as boundaries.
+     */
+    List<Chunk> split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int chunkCount = (int) Math.max(1, Math.min(size / MIN_CHUNK_BYTES, (long) parallelism * CHUNKS_PER_THREAD));
+        long target = size / chunkCount;
+
+        List<Chunk> chunks = new ArrayList<>(chunkCount);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(SCAN_BUFFER_SIZE);
+        long chunkStart = 0;
+        long chunkFirstLine = 1;
+        long nextTarget = target;
+        long line = 1;
+        long offset = 0;
+        boolean inQuotes = false;
+
+        while (offset < size) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            buffer.flip();
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if (b == '\n') {
+                    line++;
+                    long boundary = offset + i + 1;
+                    if (!inQuotes && boundary >= nextTarget && boundary < size) {
+                        chunks.add(new Chunk(chunkStart, boundary, chunkFirstLine));
+                        chunkStart = boundary;
+                        chunkFirstLine = line;
+                        nextTarget = boundary + target;
+                    }
+                }
+            }
+            offset += read;
+        }
+
+        chunks.add(new Chunk(chunkStart, size, chunkFirstLine));
+        return chunks;
+    }
+
+    private <T> ChunkResult<T> parseChunk(FileChannel channel, Chunk chunk, Function<CsvTokenizer, T> mapper) {
+        ChunkResult<T> result = new ChunkResult<>();
+
+        try (Reader reader = new InputStreamReader(new RangeInputStream(channel, chunk.start, chunk.end),
+                StandardCharsets.UTF_8)) {
+            CsvTokenizer record = new CsvTokenizer(reader);
+            record.reset(reader, chunk.firstLine);
+
+            if (chunk.start == 0) {
+                record.skipRecord(); // Skip header
+            }
+
+            while (record.next()) {
+                try {
+                    result.records.add(mapper.apply(record));
+                } catch (RuntimeException e) {
+                    result.errors.add("Line " + record.lineNumber() + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result;
+    }
+
+    /**
+     * A byte range of the file and the line number it starts on
+     */
+    static final class Chunk {
+        final long start;
+        final long end;
+        final long firstLine;
+
+        Chunk(long start, long end, long firstLine) {
+            this.start = start;
+            this.end = end;
+            this.firstLine = firstLine;
+        }
+    }
+
+    private static final class ChunkResult<T> {
+        private final List<T> records = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+    }
+
+    /**
+     * Parsed records in file order, plus the errors reported by each chunk
+     */
+    public static final class Result<T> {
+        private final List<T> records = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+        private final int chunkCount;
+
+        Result(int chunkCount) {
+            this.chunkCount = chunkCount;
+        }
+
+        private void merge(ChunkResult<T> chunk) {
+            records.addAll(chunk.records);
+            errors.addAll(chunk.errors);
+        }
+
+        public List<T> getRecords() {
+            return records;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        public int getChunkCount() {
+            return chunkCount;
+        }
+    }
+
+    /**
+     * Reads a byte range of a shared channel using positional reads, so
+     * several chunks can be read from one channel concurrently
+     */
+    private static final class RangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+
+        RangeInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int wanted = (int) Math.min(length, end - position);
+            int read = channel.read(ByteBuffer.wrap(bytes, offset, wanted), position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+    }
+}
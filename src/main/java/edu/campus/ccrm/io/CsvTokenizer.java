@@ -0,0 +1,398 @@
+package edu.campus.ccrm.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Reusable, buffer-based CSV record tokenizer (RFC 4180).
+ * Records are scanned in place inside a char buffer and each field is kept
+ * as a pair of offsets, so no Strings are created unless a caller asks for
+ * one. Quoted fields may contain separators, line breaks and doubled quotes
+ * ({@code ""}), which are unescaped in place.
+ *
+ * <p>
+ * Instances are not thread-safe; use one tokenizer per reader and reuse it
+ * with {@link #reset(Reader)}.
+ */
+public final class CsvTokenizer {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_FIELD_CAPACITY = 16;
+
+    private final char separator;
+    private Reader reader;
+    private char[] buffer;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    private int[] fieldStarts = new int[INITIAL_FIELD_CAPACITY];
+    private int[] fieldEnds = new int[INITIAL_FIELD_CAPACITY];
+    private int fieldCount;
+    private int recordStart;
+    private int fieldStart;
+    private int write;
+    private long lineNumber;
+    private long recordLineNumber;
+
+    public CsvTokenizer(Reader reader) {
+        this(reader, ',', DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvTokenizer(Reader reader, char separator, int bufferSize) {
+        this.separator = separator;
+        this.buffer = new char[Math.max(bufferSize, 16)];
+        reset(reader);
+    }
+
+    /**
+     * Points the tokenizer at a new reader, keeping the allocated buffers
+     */
+    public void reset(Reader reader) {
+        reset(reader, 1);
+    }
+
+    /**
+     * Points the tokenizer at a new reader whose first line is
+     * {@code firstLineNumber} of the underlying file
+     */
+    public void reset(Reader reader, long firstLineNumber) {
+        this.reader = reader;
+        this.position = 0;
+        this.limit = 0;
+        this.recordStart = 0;
+        this.endOfInput = false;
+        this.fieldCount = 0;
+        this.lineNumber = firstLineNumber;
+        this.recordLineNumber = 0;
+    }
+
+    /**
+     * Advances to the next non-blank record
+     *
+     * @return false once the input is exhausted
+     */
+    public boolean next() throws IOException {
+        while (readRecord()) {
+            if (!isBlankRecord()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Skips the next record, typically the header line
+     */
+    public boolean skipRecord() throws IOException {
+        return readRecord();
+    }
+
+    /**
+     * Gets the number of fields in the current record
+     */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Gets the 1-based line on which the current record starts
+     */
+    public long lineNumber() {
+        return recordLineNumber;
+    }
+
+    /**
+     * Materializes a field as a String
+     */
+    public String field(int index) {
+        checkIndex(index);
+        return new String(buffer, fieldStarts[index], fieldEnds[index] - fieldStarts[index]);
+    }
+
+    /**
+     * Gets a field as a String, or null when the field is missing or empty
+     */
+    public String optionalField(int index) {
+        return index < fieldCount && !isEmpty(index) ? field(index) : null;
+    }
+
+    /**
+     * Checks whether a field has no characters
+     */
+    public boolean isEmpty(int index) {
+        checkIndex(index);
+        return fieldStarts[index] == fieldEnds[index];
+    }
+
+    /**
+     * Gets the length of a field
+     */
+    public int length(int index) {
+        checkIndex(index);
+        return fieldEnds[index] - fieldStarts[index];
+    }
+
+    /**
+     * Gets a single character of a field
+     */
+    public char charAt(int index, int offset) {
+        checkIndex(index);
+        return buffer[fieldStarts[index] + offset];
+    }
+
+    /**
+     * Compares a field with a value, ignoring case
+     */
+    public boolean fieldEqualsIgnoreCase(int index, String value) {
+        checkIndex(index);
+        int start = fieldStarts[index];
+        int length = fieldEnds[index] - start;
+        if (length != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.toUpperCase(buffer[start + i]) != Character.toUpperCase(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a field as a decimal int
+     */
+    public int intField(int index) {
+        checkIndex(index);
+        return parseInt(index, fieldStarts[index], fieldEnds[index]);
+    }
+
+    /**
+     * Parses the digits of a field between two offsets as an int
+     */
+    public int intField(int index, int from, int to) {
+        checkIndex(index);
+        return parseInt(index, fieldStarts[index] + from, fieldStarts[index] + to);
+    }
+
+    /**
+     * Parses a yyyy-MM-dd field without creating intermediate Strings
+     */
+    public LocalDate dateField(int index) {
+        checkIndex(index);
+        int start = fieldStarts[index];
+        if (fieldEnds[index] - start != 10 || buffer[start + 4] != '-' || buffer[start + 7] != '-') {
+            throw new IllegalArgumentException("Invalid date: " + field(index));
+        }
+        return LocalDate.of(
+                parseInt(index, start, start + 4),
+                parseInt(index, start + 5, start + 7),
+                parseInt(index, start + 8, start + 10));
+    }
+
+    /**
+     * Matches a field against enum constant names, ignoring case and
+     * treating spaces as underscores (so "On Leave" matches ON_LEAVE)
+     */
+    public <E extends Enum<E>> E enumField(int index, E[] values) {
+        return enumField(index, 0, length(index), values);
+    }
+
+    /**
+     * Matches part of a field, between two offsets, against enum constant
+     * names in the same way as {@link #enumField(int, Enum[])}
+     */
+    public <E extends Enum<E>> E enumField(int index, int from, int to, E[] values) {
+        checkIndex(index);
+        int start = fieldStarts[index] + from;
+        int length = to - from;
+
+        for (E value : values) {
+            String name = value.name();
+            if (name.length() != length) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < length && matches; i++) {
+                char c = Character.toUpperCase(buffer[start + i]);
+                matches = (c == ' ' ? '_' : c) == name.charAt(i);
+            }
+            if (matches) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid value: " + field(index));
+    }
+
+    /**
+     * Finds a character within a field
+     *
+     * @return the offset within the field, or -1
+     */
+    public int indexOf(int index, char c) {
+        checkIndex(index);
+        for (int i = fieldStarts[index]; i < fieldEnds[index]; i++) {
+            if (buffer[i] == c) {
+                return i - fieldStarts[index];
+            }
+        }
+        return -1;
+    }
+
+    // Private helper methods
+
+    private int parseInt(int index, int from, int to) {
+        if (from >= to) {
+            throw new NumberFormatException("Empty number in field " + index);
+        }
+        boolean negative = buffer[from] == '-';
+        int i = negative ? from + 1 : from;
+        if (i >= to) {
+            throw new NumberFormatException("Invalid number: " + field(index));
+        }
+        int result = 0;
+        for (; i < to; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Invalid number: " + field(index));
+            }
+            result = result * 10 + digit;
+        }
+        return negative ? -result : result;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " of " + fieldCount);
+        }
+    }
+
+    private boolean isBlankRecord() {
+        if (fieldCount != 1) {
+            return false;
+        }
+        for (int i = fieldStarts[0]; i < fieldEnds[0]; i++) {
+            if (!Character.isWhitespace(buffer[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scans one record into the field offset arrays. Quoted content is
+     * unescaped by copying it down over the quote characters; the write
+     * index never overtakes the read index, so this is done in place.
+     */
+    private boolean readRecord() throws IOException {
+        fieldCount = 0;
+        recordLineNumber = lineNumber;
+        recordStart = position;
+
+        if (!available()) {
+            return false;
+        }
+
+        fieldStart = position;
+        write = position;
+        boolean inQuotes = false;
+        boolean quotedField = false;
+
+        while (true) {
+            if (!available()) {
+                addField(fieldStart, write);
+                return true;
+            }
+
+            char c = buffer[position++];
+
+            if (inQuotes) {
+                if (c == '"') {
+                    if (available() && buffer[position] == '"') {
+                        buffer[write++] = '"';
+                        position++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    buffer[write++] = c;
+                }
+            } else if (c == '"' && write == fieldStart && !quotedField) {
+                inQuotes = true;
+                quotedField = true;
+            } else if (c == separator) {
+                addField(fieldStart, write);
+                fieldStart = position;
+                write = position;
+                quotedField = false;
+            } else if (c == '\n' || c == '\r') {
+                addField(fieldStart, write);
+                lineNumber++;
+                if (c == '\r' && available() && buffer[position] == '\n') {
+                    position++;
+                }
+                return true;
+            } else {
+                buffer[write++] = c;
+            }
+        }
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+    }
+
+    /**
+     * Makes sure at least one unread character is buffered, moving the
+     * current record to the front of the buffer (or growing the buffer)
+     * before reading more input
+     *
+     * @return false at end of input
+     */
+    private boolean available() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        if (endOfInput) {
+            return false;
+        }
+
+        if (recordStart > 0) {
+            int shift = recordStart;
+            System.arraycopy(buffer, shift, buffer, 0, limit - shift);
+            for (int i = 0; i < fieldCount; i++) {
+                fieldStarts[i] -= shift;
+                fieldEnds[i] -= shift;
+            }
+            recordStart = 0;
+            fieldStart -= shift;
+            write -= shift;
+            position -= shift;
+            limit -= shift;
+        } else if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+
+        int read;
+        do {
+            read = reader.read(buffer, limit, buffer.length - limit);
+        } while (read == 0);
+
+        if (read < 0) {
+            endOfInput = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+}
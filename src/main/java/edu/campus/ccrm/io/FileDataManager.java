@@ -1,30 +1,90 @@
 package edu.campus.ccrm.io;
 
+import edu.campus.ccrm.config.ApplicationConfig;
 import edu.campus.ccrm.domain.*;
 import edu.campus.ccrm.domain.enums.*;
 import edu.campus.ccrm.exception.DataImportException;
 import edu.campus.ccrm.exception.DataExportException;
+import edu.campus.ccrm.service.CourseService;
+import edu.campus.ccrm.service.EnrollmentService;
+import edu.campus.ccrm.service.StudentService;
+import edu.campus.ccrm.util.TranscriptWriter;
+import edu.campus.ccrm.metrics.MetricsRegistry;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * Manages file I/O operations for the CCRM system.
- * Implements CSV and text file operations using NIO.2 and Streams.
+ * Implements CSV, binary snapshot and text file operations using NIO.2 and Streams.
  */
 public class FileDataManager {
     private static final String DATA_DIR = "data";
     private static final String STUDENTS_FILE = "students.csv";
     private static final String COURSES_FILE = "courses.csv";
     private static final String ENROLLMENTS_FILE = "enrollments.csv";
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final String MAPPED_FILE = "records.dat";
     private static final String BACKUP_DIR = "backups";
+    private static final String CHUNKS_DIR = "chunks";
+    private static final String RESTORE_STAGING_DIR = ".restore";
+    private static final String BACKUP_EXPORT_DIR = ".export";
+    private static final String RESTORE_MARKER_FILE = "restore.pending";
+    private static final String JOURNAL_DIR = "journal";
+    private static final String CHECKPOINT_DIR = "checkpoints";
+    private static final String TRANSCRIPTS_DIR = "transcripts";
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final String BACKUP_TIMESTAMP_PATTERN = "yyyy-MM-dd_HH-mm-ss";
+    private static final DateTimeFormatter BACKUP_TIMESTAMP_FORMATTER =
+            DateTimeFormatter.ofPattern(BACKUP_TIMESTAMP_PATTERN);
+
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+
+    private static final StudentStatus[] STUDENT_STATUSES = StudentStatus.values();
+    private static final CourseStatus[] COURSE_STATUSES = CourseStatus.values();
+    private static final EnrollmentStatus[] ENROLLMENT_STATUSES = EnrollmentStatus.values();
+    private static final Semester.Season[] SEASONS = Semester.Season.values();
+    private static final Grade[] GRADES = Grade.values();
+
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+
+    private static final ExecutorService TRANSFER_EXECUTOR = Executors.newFixedThreadPool(3, runnable -> {
+        Thread thread = new Thread(runnable, "data-transfer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ExecutorService PRUNE_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "backup-pruner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Journal journal;
+    private volatile Checkpointer checkpointer;
+
+    private final Object backupLock = new Object();
+    private volatile List<BackupInfo> backupIndex;
+    private volatile FileTime backupIndexTime;
 
     /**
      * Initializes the data directory structure
@@ -43,209 +103,987 @@ public class FileDataManager {
     }
 
     /**
-     * Exports students to CSV file using Streams and NIO.2
+     * Exports students to CSV file, streaming rows through a buffered writer
      */
     public void exportStudentsToCSV(List<Student> students) throws DataExportException {
-        try {
-            Path filePath = Paths.get(DATA_DIR, STUDENTS_FILE);
+        exportStudentsToCSV(students.iterator());
+    }
 
-            List<String> lines = students.stream()
-                    .map(this::studentToCSVLine)
-                    .collect(Collectors.toList());
+    /**
+     * Exports students to CSV file from a stream without materializing it
+     */
+    public void exportStudentsToCSV(Stream<Student> students) throws DataExportException {
+        exportStudentsToCSV(students.iterator());
+    }
 
-            // Add header
-            lines.add(0, getStudentCSVHeader());
+    /**
+     * Exports students to CSV file from an iterator, in constant memory
+     */
+    public void exportStudentsToCSV(Iterator<Student> students) throws DataExportException {
+        METRICS.time("FileDataManager.exportStudentsToCSV", () -> {
+            try {
+                writeCSV(Paths.get(DATA_DIR, STUDENTS_FILE), getStudentCSVHeader(), students, this::writeStudentRow);
+            } catch (IOException e) {
+                throw new DataExportException("Failed to export students to CSV", e);
+            }
+        });
+    }
 
-            Files.write(filePath, lines, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
-                    StandardOpenOption.TRUNCATE_EXISTING);
+    /**
+     * Imports students from CSV file using Streams and NIO.2. Rows that
+     * cannot be parsed are added to {@code errors} with their line numbers.
+     */
+    public List<Student> importStudentsFromCSV(List<String> errors) throws DataImportException {
+        return METRICS.time("FileDataManager.importStudentsFromCSV", () -> {
+            try {
+                Path filePath = Paths.get(DATA_DIR, STUDENTS_FILE);
 
-        } catch (IOException e) {
-            throw new DataExportException("Failed to export students to CSV", e);
-        }
+                if (!Files.exists(filePath)) {
+                    return new ArrayList<>();
+                }
+
+                List<Student> students = new ArrayList<>();
+                streamCSV(filePath, this::csvRecordToStudent, students::add, errors);
+                return students;
+
+            } catch (IOException e) {
+                throw new DataImportException("Failed to import students from CSV", e);
+            }
+        });
     }
 
     /**
-     * Imports students from CSV file using Streams and NIO.2
+     * Exports courses to CSV file, streaming rows through a buffered writer
      */
-    public List<Student> importStudentsFromCSV() throws DataImportException {
-        try {
-            Path filePath = Paths.get(DATA_DIR, STUDENTS_FILE);
+    public void exportCoursesToCSV(List<Course> courses) throws DataExportException {
+        exportCoursesToCSV(courses.iterator());
+    }
+
+    /**
+     * Exports courses to CSV file from a stream without materializing it
+     */
+    public void exportCoursesToCSV(Stream<Course> courses) throws DataExportException {
+        exportCoursesToCSV(courses.iterator());
+    }
 
-            if (!Files.exists(filePath)) {
-                return new ArrayList<>();
+    /**
+     * Exports courses to CSV file from an iterator, in constant memory
+     */
+    public void exportCoursesToCSV(Iterator<Course> courses) throws DataExportException {
+        METRICS.time("FileDataManager.exportCoursesToCSV", () -> {
+            try {
+                writeCSV(Paths.get(DATA_DIR, COURSES_FILE), getCourseCSVHeader(), courses, this::writeCourseRow);
+            } catch (IOException e) {
+                throw new DataExportException("Failed to export courses to CSV", e);
             }
+        });
+    }
 
-            return Files.lines(filePath)
-                    .skip(1) // Skip header
-                    .filter(line -> !line.trim().isEmpty())
-                    .map(this::csvLineToStudent)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
+    /**
+     * Imports courses from CSV file using Streams and NIO.2. Rows that
+     * cannot be parsed are added to {@code errors} with their line numbers.
+     */
+    public List<Course> importCoursesFromCSV(List<String> errors) throws DataImportException {
+        return METRICS.time("FileDataManager.importCoursesFromCSV", () -> {
+            try {
+                Path filePath = Paths.get(DATA_DIR, COURSES_FILE);
 
-        } catch (IOException e) {
-            throw new DataImportException("Failed to import students from CSV", e);
-        }
+                if (!Files.exists(filePath)) {
+                    return new ArrayList<>();
+                }
+
+                List<Course> courses = new ArrayList<>();
+                streamCSV(filePath, this::csvRecordToCourse, courses::add, errors);
+                return courses;
+
+            } catch (IOException e) {
+                throw new DataImportException("Failed to import courses from CSV", e);
+            }
+        });
     }
 
     /**
-     * Exports courses to CSV file using Streams and NIO.2
+     * Exports enrollments to CSV file, streaming rows through a buffered writer
      */
-    public void exportCoursesToCSV(List<Course> courses) throws DataExportException {
-        try {
-            Path filePath = Paths.get(DATA_DIR, COURSES_FILE);
-
-            List<String> lines = courses.stream()
-                    .map(this::courseToCSVLine)
-                    .collect(Collectors.toList());
+    public void exportEnrollmentsToCSV(List<Enrollment> enrollments) throws DataExportException {
+        exportEnrollmentsToCSV(enrollments.iterator());
+    }
 
-            // Add header
-            lines.add(0, getCourseCSVHeader());
+    /**
+     * Exports enrollments to CSV file from a stream without materializing it
+     */
+    public void exportEnrollmentsToCSV(Stream<Enrollment> enrollments) throws DataExportException {
+        exportEnrollmentsToCSV(enrollments.iterator());
+    }
 
-            Files.write(filePath, lines, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
-                    StandardOpenOption.TRUNCATE_EXISTING);
+    /**
+     * Exports enrollments to CSV file from an iterator, in constant memory
+     */
+    public void exportEnrollmentsToCSV(Iterator<Enrollment> enrollments) throws DataExportException {
+        METRICS.time("FileDataManager.exportEnrollmentsToCSV", () -> {
+            try {
+                writeCSV(Paths.get(DATA_DIR, ENROLLMENTS_FILE), getEnrollmentCSVHeader(), enrollments,
+                        this::writeEnrollmentRow);
+            } catch (IOException e) {
+                throw new DataExportException("Failed to export enrollments to CSV", e);
+            }
+        });
+    }
 
-        } catch (IOException e) {
-            throw new DataExportException("Failed to export courses to CSV", e);
-        }
+    /**
+     * Imports enrollments from CSV file, resolving each row's student and
+     * course against the given services. Rows that cannot be resolved are
+     * added to {@code errors} with their line numbers.
+     */
+    public List<Enrollment> importEnrollmentsFromCSV(StudentService studentService, CourseService courseService,
+            List<String> errors) throws DataImportException {
+        return METRICS.time("FileDataManager.importEnrollmentsFromCSV", () -> {
+            try {
+                Path filePath = Paths.get(DATA_DIR, ENROLLMENTS_FILE);
+
+                if (!Files.exists(filePath)) {
+                    return new ArrayList<>();
+                }
+
+                List<Enrollment> enrollments = new ArrayList<>();
+                streamCSV(filePath, record -> csvRecordToEnrollment(record, studentService, courseService),
+                        enrollments::add, errors);
+                return enrollments;
+
+            } catch (IOException e) {
+                throw new DataImportException("Failed to import enrollments from CSV", e);
+            }
+        });
     }
 
     /**
-     * Imports courses from CSV file using Streams and NIO.2
+     * Loads all three CSV files straight into the services in a single
+     * streaming pass per file. Students and courses are loaded first so
+     * enrollments can be resolved against the live objects; nothing is
+     * buffered beyond the current line. Rows that cannot be read are added
+     * to {@code errors}, each prefixed with its file name.
+     *
+     * @return the number of students, courses and enrollments loaded
      */
-    public List<Course> importCoursesFromCSV() throws DataImportException {
-        try {
-            Path filePath = Paths.get(DATA_DIR, COURSES_FILE);
+    public Map<String, Integer> loadAllData(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService, List<String> errors) throws DataImportException {
+        return METRICS.time("FileDataManager.loadAllData", () -> {
+            // Same prefixes as TransferReport, so both loaders report rows alike
+            TransferReport report = new TransferReport();
+            List<String> studentErrors = new ArrayList<>();
+            List<String> courseErrors = new ArrayList<>();
+            List<String> enrollmentErrors = new ArrayList<>();
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            counts.put("students", loadStudents(studentService, studentErrors));
+            counts.put("courses", loadCourses(courseService, courseErrors));
+            counts.put("enrollments", loadEnrollments(studentService, courseService, enrollmentService,
+                    enrollmentErrors));
+            report.addErrors(STUDENTS_FILE, studentErrors);
+            report.addErrors(COURSES_FILE, courseErrors);
+            report.addErrors(ENROLLMENTS_FILE, enrollmentErrors);
+            errors.addAll(report.getErrors());
+            return counts;
+        });
+    }
 
-            if (!Files.exists(filePath)) {
-                return new ArrayList<>();
+    /**
+     * Streams the students CSV file into the student service, adding rows
+     * that cannot be parsed to {@code errors}
+     */
+    public int loadStudents(StudentService studentService, List<String> errors) throws DataImportException {
+        return METRICS.time("FileDataManager.loadStudents", () -> {
+            try {
+                return streamCSV(Paths.get(DATA_DIR, STUDENTS_FILE), this::csvRecordToStudent,
+                        studentService::addStudent, errors);
+            } catch (IOException e) {
+                throw new DataImportException("Failed to import students from CSV", e);
             }
+        });
+    }
 
-            return Files.lines(filePath)
-                    .skip(1) // Skip header
-                    .filter(line -> !line.trim().isEmpty())
-                    .map(this::csvLineToCourse)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
+    /**
+     * Streams the courses CSV file into the course service, adding rows
+     * that cannot be parsed to {@code errors}
+     */
+    public int loadCourses(CourseService courseService, List<String> errors) throws DataImportException {
+        return METRICS.time("FileDataManager.loadCourses", () -> {
+            try {
+                return streamCSV(Paths.get(DATA_DIR, COURSES_FILE), this::csvRecordToCourse, courseService::addCourse,
+                        errors);
+            } catch (IOException e) {
+                throw new DataImportException("Failed to import courses from CSV", e);
+            }
+        });
+    }
 
-        } catch (IOException e) {
-            throw new DataImportException("Failed to import courses from CSV", e);
-        }
+    /**
+     * Streams the enrollments CSV file into the enrollment service, then
+     * attaches the loaded enrollments to their students in one pass. Rows
+     * that cannot be resolved are added to {@code errors}.
+     */
+    public int loadEnrollments(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService, List<String> errors) throws DataImportException {
+        return METRICS.time("FileDataManager.loadEnrollments", () -> {
+            try {
+                int loaded = streamCSV(Paths.get(DATA_DIR, ENROLLMENTS_FILE),
+                        record -> csvRecordToEnrollment(record, studentService, courseService),
+                        enrollmentService::loadEnrollment, errors);
+                studentService.attachEnrollments(enrollmentService);
+                return loaded;
+            } catch (IOException e) {
+                throw new DataImportException("Failed to import enrollments from CSV", e);
+            }
+        });
     }
 
     /**
-     * Exports enrollments to CSV file using Streams and NIO.2
+     * Parses the enrollments CSV file in parallel chunks and loads the rows
+     * into the enrollment service in file order. Rows that cannot be
+     * resolved are collected with their line numbers rather than printed.
      */
-    public void exportEnrollmentsToCSV(List<Enrollment> enrollments) throws DataExportException {
-        try {
+    public ChunkedCsvReader.Result<Enrollment> loadEnrollmentsChunked(StudentService studentService,
+            CourseService courseService, EnrollmentService enrollmentService) throws DataImportException {
+        return METRICS.time("FileDataManager.loadEnrollmentsChunked", () -> {
             Path filePath = Paths.get(DATA_DIR, ENROLLMENTS_FILE);
 
-            List<String> lines = enrollments.stream()
-                    .map(this::enrollmentToCSVLine)
-                    .collect(Collectors.toList());
+            try {
+                if (!Files.exists(filePath)) {
+                    return new ChunkedCsvReader.Result<>(0);
+                }
+
+                ChunkedCsvReader.Result<Enrollment> result = new ChunkedCsvReader().read(filePath,
+                        record -> csvRecordToEnrollment(record, studentService, courseService));
+                result.getRecords().forEach(enrollmentService::loadEnrollment);
+                studentService.attachEnrollments(enrollmentService);
+                return result;
+            } catch (IOException e) {
+                throw new DataImportException("Failed to import enrollments from CSV", e);
+            }
+        });
+    }
+
+    /**
+     * Writes all services to the binary snapshot file. With a journal
+     * open, the segments the snapshot supersedes are deleted afterwards,
+     * along with any checkpoint deltas.
+     *
+     * @return the number of records written
+     */
+    public int exportSnapshot(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService) throws DataExportException {
+        return METRICS.time("FileDataManager.exportSnapshot", () -> {
+            try {
+                Checkpointer current = checkpointer;
+                if (current != null) {
+                    return current.compact();
+                }
+
+                // Mutations in segments before the new one are all applied, so the snapshot covers them
+                long firstSegment = journal != null ? journal.rotate() : 0;
+                long sequence = Checkpointer.lastDeltaIndex(Paths.get(DATA_DIR, CHECKPOINT_DIR));
+                int written = BinarySnapshot.write(Paths.get(DATA_DIR, SNAPSHOT_FILE), sequence,
+                        courseService.getAllCourses(), studentService.getAllStudents(),
+                        enrollmentService.getAllEnrollments());
+                if (journal != null) {
+                    journal.deleteSegmentsBefore(firstSegment);
+                }
+                return written;
+            } catch (IOException e) {
+                throw new DataExportException("Failed to write binary snapshot", e);
+            }
+        });
+    }
 
-            // Add header
-            lines.add(0, getEnrollmentCSVHeader());
+    /**
+     * Loads the binary snapshot file straight into the services
+     *
+     * @return the number of students, courses and enrollments loaded
+     */
+    public Map<String, Integer> loadSnapshot(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService) throws DataImportException {
+        return METRICS.time("FileDataManager.loadSnapshot", () -> {
+            try {
+                Map<String, Integer> counts = BinarySnapshot.read(Paths.get(DATA_DIR, SNAPSHOT_FILE),
+                        studentService, courseService, enrollmentService);
+                studentService.attachEnrollments(enrollmentService);
+                return counts;
+            } catch (IOException e) {
+                throw new DataImportException("Failed to load binary snapshot", e);
+            }
+        });
+    }
 
-            Files.write(filePath, lines, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
-                    StandardOpenOption.TRUNCATE_EXISTING);
+    /**
+     * Rebuilds the services after a restart: finishes a restore that was
+     * interrupted after it committed, then loads the binary snapshot and
+     * applies the checkpoint deltas and journal written since on top.
+     *
+     * <p>
+     * The snapshot is the saved state whenever it exists; CSV files are
+     * only read without one, on a first start or after a restore. They are
+     * then the whole state, so any deltas and journal, which were written
+     * on top of a snapshot, are discarded and a new snapshot is written
+     * from them. Changes made to the CSV files by hand take effect through
+     * an import. CSV rows that cannot be read are added to {@code errors}.
+     *
+     * @return the number of students, courses and enrollments loaded, and
+     *         the number of checkpoint and journal records applied
+     */
+    public Map<String, Integer> recoverData(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService, List<String> errors) throws DataImportException {
+        return METRICS.time("FileDataManager.recoverData", () -> {
+            try {
+                completePendingRestore();
+            } catch (IOException e) {
+                throw new DataImportException("Failed to complete interrupted restore", e);
+            }
 
-        } catch (IOException e) {
-            throw new DataExportException("Failed to export enrollments to CSV", e);
+            if (!Files.exists(Paths.get(DATA_DIR, SNAPSHOT_FILE))) {
+                return recoverFromCSV(studentService, courseService, enrollmentService, errors);
+            }
+
+            Map<String, Integer> counts = loadSnapshot(studentService, courseService, enrollmentService);
+            try {
+                int deltas = Checkpointer.applyDeltas(Paths.get(DATA_DIR, CHECKPOINT_DIR),
+                        Paths.get(DATA_DIR, SNAPSHOT_FILE), studentService, courseService, enrollmentService);
+                Map<String, Integer> replayed = Journal.replay(Paths.get(DATA_DIR, JOURNAL_DIR), studentService,
+                        courseService, enrollmentService);
+                int records = replayed.get("students") + replayed.get("courses") + replayed.get("enrollments");
+                if (deltas + records > 0) {
+                    studentService.attachEnrollments(enrollmentService);
+                }
+                counts.put("checkpoint", deltas);
+                counts.put("journal", records);
+                return counts;
+            } catch (IOException e) {
+                throw new DataImportException("Failed to apply checkpoints and journal", e);
+            }
+        });
+    }
+
+    /**
+     * Opens the mutation journal and starts the background checkpointer,
+     * each if enabled in the configuration, and registers them with the
+     * services. Call after the data is loaded, so the load itself is not
+     * journaled.
+     *
+     * @return whether a journal was opened
+     */
+    public boolean openJournal(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService) throws IOException {
+        ApplicationConfig config = ApplicationConfig.getInstance();
+        if (journal != null || checkpointer != null) {
+            return false;
+        }
+
+        if (config.isJournalEnabled()) {
+            journal = Journal.open(Paths.get(DATA_DIR, JOURNAL_DIR), config.isJournalSyncCommit(),
+                    config.getJournalFsyncIntervalMillis(), config.getJournalFsyncBatchSize(),
+                    config.getJournalSegmentSizeMb() * 1024L * 1024L);
+            studentService.addMutationListener(journal);
+            courseService.addMutationListener(journal);
+            enrollmentService.addMutationListener(journal);
+        }
+
+        if (config.isCheckpointEnabled()) {
+            checkpointer = Checkpointer.start(Paths.get(DATA_DIR, SNAPSHOT_FILE), Paths.get(DATA_DIR, CHECKPOINT_DIR),
+                    journal, studentService, courseService, enrollmentService,
+                    config.getCheckpointIntervalSeconds() * 1000L, config.getCheckpointDirtyThreshold(),
+                    config.getCheckpointCompactRatio());
+            studentService.addMutationListener(checkpointer);
+            courseService.addMutationListener(checkpointer);
+            enrollmentService.addMutationListener(checkpointer);
         }
+        return journal != null;
     }
 
     /**
-     * Imports enrollments from CSV file using Streams and NIO.2
+     * Writes a final checkpoint, then flushes and closes the mutation
+     * journal
      */
-    public List<Enrollment> importEnrollmentsFromCSV() throws DataImportException {
-        try {
-            Path filePath = Paths.get(DATA_DIR, ENROLLMENTS_FILE);
+    public void closeJournal() throws IOException {
+        Checkpointer currentCheckpointer = checkpointer;
+        if (currentCheckpointer != null) {
+            checkpointer = null;
+            currentCheckpointer.close();
+        }
 
-            if (!Files.exists(filePath)) {
-                return new ArrayList<>();
+        Journal current = journal;
+        if (current != null) {
+            journal = null;
+            current.close();
+        }
+    }
+
+    /**
+     * Gets background checkpoint statistics, or an empty map when the
+     * checkpointer is not running
+     */
+    public Map<String, Object> getCheckpointStatistics() {
+        Checkpointer current = checkpointer;
+        return current != null ? current.getStatistics() : new HashMap<>();
+    }
+
+    /**
+     * Writes all services to the fixed-layout data file used by read-only
+     * reporting through {@link #openMappedDataFile()}
+     *
+     * @return the number of records written
+     */
+    public int exportMappedDataFile(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService) throws DataExportException {
+        return METRICS.time("FileDataManager.exportMappedDataFile", () -> {
+            try {
+                return MappedDataFile.write(Paths.get(DATA_DIR, MAPPED_FILE), courseService.getAllCourses(),
+                        studentService.getAllStudents(), enrollmentService.getAllEnrollments());
+            } catch (IOException e) {
+                throw new DataExportException("Failed to write mapped data file", e);
             }
+        });
+    }
 
-            return Files.lines(filePath)
-                    .skip(1) // Skip header
-                    .filter(line -> !line.trim().isEmpty())
-                    .map(this::csvLineToEnrollment)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
+    /**
+     * Memory-maps the fixed-layout data file for read-only queries. The
+     * caller closes the returned file.
+     */
+    public MappedDataFile openMappedDataFile() throws DataImportException {
+        return METRICS.time("FileDataManager.openMappedDataFile", () -> {
+            try {
+                return MappedDataFile.open(Paths.get(DATA_DIR, MAPPED_FILE));
+            } catch (IOException e) {
+                throw new DataImportException("Failed to open mapped data file", e);
+            }
+        });
+    }
 
-        } catch (IOException e) {
-            throw new DataImportException("Failed to import enrollments from CSV", e);
-        }
+    /**
+     * Exports the three CSV files concurrently. The files are independent,
+     * so each one is read from its service and written on its own thread.
+     *
+     * @return per-file record counts and timings
+     */
+    public TransferReport exportAllDataParallel(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService) throws DataExportException {
+        return METRICS.time("FileDataManager.exportAllDataParallel", () -> {
+            TransferReport report = new TransferReport();
+            long start = System.nanoTime();
+
+            try {
+                CompletableFuture.allOf(
+                        timedAsync(report, STUDENTS_FILE, () -> writeCSV(Paths.get(DATA_DIR, STUDENTS_FILE),
+                                getStudentCSVHeader(), studentService.getAllStudents().iterator(),
+                                this::writeStudentRow)),
+                        timedAsync(report, COURSES_FILE, () -> writeCSV(Paths.get(DATA_DIR, COURSES_FILE),
+                                getCourseCSVHeader(), courseService.getAllCourses().iterator(), this::writeCourseRow)),
+                        timedAsync(report, ENROLLMENTS_FILE, () -> writeCSV(Paths.get(DATA_DIR, ENROLLMENTS_FILE),
+                                getEnrollmentCSVHeader(), enrollmentService.getAllEnrollments().iterator(),
+                                this::writeEnrollmentRow)))
+                        .join();
+            } catch (CompletionException e) {
+                throw new DataExportException("Failed to export data to CSV", e.getCause());
+            }
+
+            report.setWallClockNanos(System.nanoTime() - start);
+            return report;
+        });
     }
 
     /**
-     * Creates a backup of all data files using NIO.2
+     * Writes the three CSV files concurrently from streamed rows, e.g. a
+     * generated data set that is never held in memory as a whole
+     *
+     * @return per-file record counts and timings
      */
-    public void createBackup() throws DataExportException {
-        try {
-            String timestamp = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            Path backupPath = Paths.get(BACKUP_DIR, "backup_" + timestamp);
+    public TransferReport exportAllDataParallel(Iterator<Student> students, Iterator<Course> courses,
+            Iterator<Enrollment> enrollments) throws DataExportException {
+        return METRICS.time("FileDataManager.exportAllDataParallel(streams)", () -> {
+            TransferReport report = new TransferReport();
+            long start = System.nanoTime();
+
+            try {
+                CompletableFuture.allOf(
+                        timedAsync(report, STUDENTS_FILE, () -> writeCSV(Paths.get(DATA_DIR, STUDENTS_FILE),
+                                getStudentCSVHeader(), students, this::writeStudentRow)),
+                        timedAsync(report, COURSES_FILE, () -> writeCSV(Paths.get(DATA_DIR, COURSES_FILE),
+                                getCourseCSVHeader(), courses, this::writeCourseRow)),
+                        timedAsync(report, ENROLLMENTS_FILE, () -> writeCSV(Paths.get(DATA_DIR, ENROLLMENTS_FILE),
+                                getEnrollmentCSVHeader(), enrollments, this::writeEnrollmentRow)))
+                        .join();
+            } catch (CompletionException e) {
+                throw new DataExportException("Failed to export data to CSV", e.getCause());
+            }
 
-            if (!Files.exists(backupPath)) {
-                Files.createDirectories(backupPath);
+            report.setWallClockNanos(System.nanoTime() - start);
+            return report;
+        });
+    }
+
+    /**
+     * Loads the CSV files into the services with students and courses read
+     * concurrently, followed by enrollments once both are in place. The
+     * enrollments file is itself parsed in parallel chunks.
+     *
+     * @return per-file record counts and timings
+     */
+    public TransferReport loadAllDataParallel(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService) throws DataImportException {
+        return METRICS.time("FileDataManager.loadAllDataParallel", () -> {
+            TransferReport report = new TransferReport();
+            List<String> studentErrors = new ArrayList<>();
+            List<String> courseErrors = new ArrayList<>();
+            long start = System.nanoTime();
+
+            try {
+                CompletableFuture.allOf(
+                        timedAsync(report, STUDENTS_FILE, () -> loadStudents(studentService, studentErrors)),
+                        timedAsync(report, COURSES_FILE, () -> loadCourses(courseService, courseErrors)))
+                        .join();
+            } catch (CompletionException e) {
+                throw new DataImportException("Failed to import data from CSV", e.getCause());
             }
+            report.addErrors(STUDENTS_FILE, studentErrors);
+            report.addErrors(COURSES_FILE, courseErrors);
+
+            long enrollmentStart = System.nanoTime();
+            ChunkedCsvReader.Result<Enrollment> enrollments = loadEnrollmentsChunked(studentService, courseService,
+                    enrollmentService);
+            report.record(ENROLLMENTS_FILE, enrollments.getRecords().size(), System.nanoTime() - enrollmentStart);
+            report.addErrors(ENROLLMENTS_FILE, enrollments.getErrors());
+
+            report.setWallClockNanos(System.nanoTime() - start);
+            return report;
+        });
+    }
 
-            // Copy all data files
-            copyFileToBackup(STUDENTS_FILE, backupPath);
-            copyFileToBackup(COURSES_FILE, backupPath);
-            copyFileToBackup(ENROLLMENTS_FILE, backupPath);
+    /**
+     * Imports the CSV files into the services and then writes a new base
+     * snapshot. The loaders do not notify the journal or the checkpointer,
+     * so without the snapshot the imported records would be lost on
+     * restart. Checkpoints are held off while the rows are loaded.
+     *
+     * @return per-file record counts and timings
+     */
+    public TransferReport importAllData(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService) throws DataImportException {
+        return METRICS.time("FileDataManager.importAllData", () -> {
+            Checkpointer current = checkpointer;
+            if (current != null) {
+                current.pause();
+            }
 
-            // Create backup manifest
-            createBackupManifest(backupPath);
+            boolean resumed = false;
+            try {
+                TransferReport report = loadAllDataParallel(studentService, courseService, enrollmentService);
+
+                try {
+                    if (current != null) {
+                        resumed = true;
+                        current.resume();
+                    } else {
+                        exportSnapshot(studentService, courseService, enrollmentService);
+                    }
+                } catch (IOException | DataExportException e) {
+                    throw new DataImportException("Data imported, but the snapshot could not be written", e);
+                }
+                return report;
+            } finally {
+                if (current != null && !resumed) {
+                    current.cancelPause();
+                }
+            }
+        });
+    }
 
-        } catch (IOException e) {
-            throw new DataExportException("Failed to create backup", e);
-        }
+    /**
+     * Writes the transcript of every student enrolled in a semester to
+     * {@code data/transcripts/<SEASON>_<year>/<student ID>.txt}. The
+     * students are found through the enrollment service's semester index,
+     * then rendered and written in parallel, each straight to its file.
+     *
+     * @return the number of transcripts written and the time taken
+     */
+    public TransferReport exportTranscripts(StudentService studentService, EnrollmentService enrollmentService,
+            Semester semester) throws DataExportException {
+        return METRICS.time("FileDataManager.exportTranscripts", () -> {
+            try {
+                long start = System.nanoTime();
+                TransferReport report = new TransferReport();
+                Path directory = Paths.get(DATA_DIR, TRANSCRIPTS_DIR,
+                        semester.getSeason() + "_" + semester.getYear());
+                List<Student> students = enrollmentService.getEnrollmentsBySemester(semester).stream()
+                        .map(enrollment -> enrollment.getStudent().getStudentId())
+                        .distinct()
+                        .map(studentService::getStudentById)
+                        .collect(Collectors.toList());
+
+                Files.createDirectories(directory);
+                students.parallelStream().forEach(student -> writeTranscript(directory, student));
+
+                long elapsedNanos = System.nanoTime() - start;
+                report.record(directory.getFileName().toString(), students.size(), elapsedNanos);
+                report.setWallClockNanos(elapsedNanos);
+                return report;
+            } catch (IOException e) {
+                throw new DataExportException("Failed to export transcripts for " + semester, e);
+            } catch (UncheckedIOException e) {
+                throw new DataExportException("Failed to export transcripts for " + semester, e.getCause());
+            }
+        });
     }
 
     /**
-     * Restores data from backup using NIO.2
+     * Creates a deduplicated backup of the current data. The services are
+     * exported to CSV files inside the new backup directory, so the backup
+     * holds what is in memory rather than the last export. Each file is
+     * split into content-defined chunks; only chunks not already in the
+     * shared chunk store are written, deflated if backup compression is
+     * enabled, and the backup itself is a manifest listing the chunks of
+     * each file. The exported files are deleted once chunked.
+     *
+     * @return the number of files, chunks referenced, new chunks and bytes
+     *         written, and the total size of the backed-up files
      */
-    public void restoreFromBackup(String backupDate) throws DataImportException {
-        try {
-            Path backupPath = Paths.get(BACKUP_DIR, "backup_" + backupDate);
+    public Map<String, Object> createBackup(StudentService studentService, CourseService courseService,
+                                            EnrollmentService enrollmentService) throws DataExportException {
+        return METRICS.time("FileDataManager.createBackup", () -> {
+            try {
+                synchronized (backupLock) {
+                    String timestamp = LocalDateTime.now().format(BACKUP_TIMESTAMP_FORMATTER);
+                    Path backupPath = Paths.get(BACKUP_DIR, "backup_" + timestamp);
+                    for (int suffix = 2; Files.exists(backupPath); suffix++) {
+                        backupPath = Paths.get(BACKUP_DIR, "backup_" + timestamp + "-" + suffix);
+                    }
+                    Files.createDirectories(backupPath);
+
+                    // Export the current state, then chunk it into the shared store, one thread per file
+                    Path exportDir = Files.createDirectories(backupPath.resolve(BACKUP_EXPORT_DIR));
+                    ChunkStore chunkStore = new ChunkStore(Paths.get(BACKUP_DIR, CHUNKS_DIR),
+                            ApplicationConfig.getInstance().isBackupCompressionEnabled());
+                    BackupManifest manifest = new BackupManifest();
+                    try {
+                        writeCSV(exportDir.resolve(STUDENTS_FILE), getStudentCSVHeader(),
+                                studentService.getAllStudents().iterator(), this::writeStudentRow);
+                        writeCSV(exportDir.resolve(COURSES_FILE), getCourseCSVHeader(),
+                                courseService.getAllCourses().iterator(), this::writeCourseRow);
+                        writeCSV(exportDir.resolve(ENROLLMENTS_FILE), getEnrollmentCSVHeader(),
+                                enrollmentService.getAllEnrollments().iterator(), this::writeEnrollmentRow);
+                        List<Path> sourceFiles = Stream.of(STUDENTS_FILE, COURSES_FILE, ENROLLMENTS_FILE)
+                                .map(exportDir::resolve)
+                                .collect(Collectors.toList());
+
+                        for (BackupManifest.FileEntry entry : forEachFileParallel(sourceFiles, chunkStore::storeFile)) {
+                            manifest.addFile(entry);
+                        }
+                    } finally {
+                        deleteRecursively(exportDir);
+                    }
+                    manifest.write(backupPath.resolve(BackupManifest.FILE_NAME));
+
+                    // Create backup manifest
+                    createBackupManifest(backupPath);
+
+                    backupIndex = null;
+
+                    Map<String, Object> stats = new HashMap<>();
+                    stats.put("files", manifest.getFiles().size());
+                    stats.put("chunks", manifest.getFiles().stream()
+                            .mapToInt(entry -> entry.getChunkHashes().size()).sum());
+                    stats.put("newChunks", chunkStore.getChunksWritten());
+                    stats.put("bytesWritten", chunkStore.getBytesWritten());
+                    stats.put("totalBytes", manifest.getFiles().stream()
+                            .mapToLong(BackupManifest.FileEntry::getSize).sum());
+                    return stats;
+                }
+            } catch (IOException e) {
+                throw new DataExportException("Failed to create backup", e);
+            }
+        });
+    }
 
-            if (!Files.exists(backupPath)) {
-                throw new DataImportException("Backup not found: " + backupDate);
+    /**
+     * Restores a backup and loads it into the running services.
+     *
+     * <p>
+     * The files are first staged in a temporary directory inside the data
+     * directory and forced to disk: chunked backups are streamed from their
+     * chunks, inflating compressed ones on the way, while older backups
+     * holding full copies are copied. A marker file then commits the
+     * restore, and the staged files are renamed into place. A crash before
+     * the marker leaves the old data untouched; a crash after it is rolled
+     * forward on the next start. The snapshot, checkpoints and journal
+     * describe the data before the restore, so they are discarded, and a
+     * new snapshot is written once the services hold the restored data.
+     *
+     * @return the number of students, courses and enrollments loaded
+     */
+    public Map<String, Integer> restoreFromBackup(String backupName, StudentService studentService,
+            CourseService courseService, EnrollmentService enrollmentService) throws DataImportException {
+        return METRICS.time("FileDataManager.restoreFromBackup", () -> {
+            try {
+                synchronized (backupLock) {
+                    Path backupPath = Paths.get(BACKUP_DIR, "backup_" + backupName);
+
+                    if (!Files.exists(backupPath)) {
+                        throw new DataImportException("Backup not found: " + backupName);
+                    }
+                    stageBackup(backupPath);
+                }
+            } catch (IOException e) {
+                throw new DataImportException("Failed to restore from backup", e);
             }
 
-            // Restore all data files
-            restoreFileFromBackup(STUDENTS_FILE, backupPath);
-            restoreFileFromBackup(COURSES_FILE, backupPath);
-            restoreFileFromBackup(ENROLLMENTS_FILE, backupPath);
+            // Checkpoints must not capture the services while they are being replaced
+            Checkpointer current = checkpointer;
+            if (current != null) {
+                current.pause();
+            }
 
-        } catch (IOException e) {
-            throw new DataImportException("Failed to restore from backup", e);
-        }
+            boolean resumed = false;
+            try {
+                try {
+                    Path markerPath = Paths.get(DATA_DIR, RESTORE_MARKER_FILE);
+                    try (FileChannel channel = FileChannel.open(markerPath, StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE)) {
+                        channel.force(true);
+                    }
+                    forceDirectory(Paths.get(DATA_DIR));
+                    rollForwardRestore();
+                } catch (IOException e) {
+                    throw new DataImportException("Failed to restore from backup", e);
+                }
+
+                // Load into fresh services, so a failed load leaves the live data untouched
+                StudentService restoredStudents = new StudentService(null);
+                CourseService restoredCourses = new CourseService();
+                EnrollmentService restoredEnrollments = new EnrollmentService(restoredStudents, restoredCourses);
+                restoredStudents.setEnrollmentService(restoredEnrollments);
+                TransferReport report = loadAllDataParallel(restoredStudents, restoredCourses, restoredEnrollments);
+
+                studentService.clear();
+                courseService.clear();
+                enrollmentService.clear();
+                restoredCourses.getAllCourses().forEach(courseService::addCourse);
+                restoredStudents.getAllStudents().forEach(studentService::addStudent);
+                restoredEnrollments.getAllEnrollments().forEach(enrollmentService::loadEnrollment);
+                studentService.attachEnrollments(enrollmentService);
+
+                try {
+                    if (current != null) {
+                        resumed = true;
+                        current.resume();
+                    } else {
+                        exportSnapshot(studentService, courseService, enrollmentService);
+                    }
+                } catch (IOException | DataExportException e) {
+                    throw new DataImportException("Restored data loaded, but the snapshot could not be written", e);
+                }
+
+                Map<String, Integer> counts = new LinkedHashMap<>();
+                counts.put("students", report.getRecords(STUDENTS_FILE));
+                counts.put("courses", report.getRecords(COURSES_FILE));
+                counts.put("enrollments", report.getRecords(ENROLLMENTS_FILE));
+                return counts;
+            } finally {
+                // A failed restore must not leave checkpoints paused for good
+                if (current != null && !resumed) {
+                    current.cancelPause();
+                }
+            }
+        });
     }
 
     /**
-     * Lists available backups using NIO.2
+     * Lists available backups, most recent first
      */
     public List<String> listAvailableBackups() throws IOException {
+        return getBackupIndex().stream()
+                .map(BackupInfo::getName)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the index of available backups with their sizes and creation
+     * times, most recent first. The index is cached and only rebuilt when
+     * the backup directory has changed.
+     */
+    public List<BackupInfo> getBackupIndex() throws IOException {
         Path backupDir = Paths.get(BACKUP_DIR);
 
         if (!Files.exists(backupDir)) {
             return new ArrayList<>();
         }
 
+        FileTime modified = Files.getLastModifiedTime(backupDir);
+        List<BackupInfo> index = backupIndex;
+        if (index != null && modified.equals(backupIndexTime)) {
+            return index;
+        }
+
         try (Stream<Path> paths = Files.list(backupDir)) {
-            return paths.filter(Files::isDirectory)
-                    .map(Path::getFileName)
-                    .map(Path::toString)
-                    .filter(name -> name.startsWith("backup_"))
-                    .map(name -> name.substring(7)) // Remove "backup_" prefix
-                    .sorted(Collections.reverseOrder()) // Most recent first
+            List<Path> backupPaths = paths.filter(Files::isDirectory)
+                    .filter(path -> path.getFileName().toString().startsWith("backup_"))
                     .collect(Collectors.toList());
+
+            List<BackupInfo> rebuilt = new ArrayList<>();
+            for (Path backupPath : backupPaths) {
+                rebuilt.add(readBackupInfo(backupPath));
+            }
+            rebuilt.sort(Comparator.comparing(BackupInfo::getCreated).reversed()
+                    .thenComparing(BackupInfo::getName, Comparator.reverseOrder()));
+
+            index = Collections.unmodifiableList(rebuilt);
+            backupIndex = index;
+            backupIndexTime = modified;
+            return index;
         }
     }
 
+    /**
+     * Deletes the backups the retention policy no longer keeps, in
+     * parallel, then deletes the chunks no remaining backup references.
+     * Blocks backups and restores while it runs.
+     *
+     * @return the number of backups and chunks deleted and the bytes freed
+     */
+    public Map<String, Object> pruneBackups() throws IOException {
+        ApplicationConfig config = ApplicationConfig.getInstance();
+        BackupRetention retention = new BackupRetention(config.getBackupRetentionDays(),
+                config.isBackupRetentionGfsEnabled(), config.getBackupRetentionDaily(),
+                config.getBackupRetentionWeekly(), config.getBackupRetentionMonthly());
+
+        synchronized (backupLock) {
+            List<BackupInfo> expired = retention.selectExpired(getBackupIndex(), LocalDateTime.now());
+            forEachFileParallel(expired, backup -> {
+                deleteRecursively(Paths.get(BACKUP_DIR, "backup_" + backup.getName()));
+                return backup;
+            });
+            backupIndex = null;
+
+            // Collect the chunks still referenced by the remaining backups
+            List<Path> manifests = new ArrayList<>();
+            for (BackupInfo backup : getBackupIndex()) {
+                if (backup.isChunked()) {
+                    manifests.add(Paths.get(BACKUP_DIR, "backup_" + backup.getName(), BackupManifest.FILE_NAME));
+                }
+            }
+            Set<String> referenced = ConcurrentHashMap.newKeySet();
+            forEachFileParallel(manifests, manifestPath -> {
+                BackupManifest.read(manifestPath).getFiles()
+                        .forEach(entry -> referenced.addAll(entry.getChunkHashes()));
+                return manifestPath;
+            });
+
+            long[] collected = BackupRetention.collectGarbage(Paths.get(BACKUP_DIR, CHUNKS_DIR), referenced);
+
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("backupsDeleted", expired.size());
+            stats.put("chunksDeleted", collected[0]);
+            stats.put("bytesFreed", collected[1]);
+            return stats;
+        }
+    }
+
+    /**
+     * Runs {@link #pruneBackups()} on a background thread
+     */
+    public CompletableFuture<Map<String, Object>> pruneBackupsInBackground() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return pruneBackups();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, PRUNE_EXECUTOR);
+    }
+
     // Private helper methods
 
+    /**
+     * A file transfer step that reports how many records it handled
+     */
+    @FunctionalInterface
+    private interface TransferTask {
+        int run() throws Exception;
+    }
+
+    /**
+     * Runs a transfer step on the shared transfer threads and records its
+     * timing
+     */
+    private CompletableFuture<Void> timedAsync(TransferReport report, String fileName, TransferTask task) {
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                report.record(fileName, task.run(), System.nanoTime() - start);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, TRANSFER_EXECUTOR);
+    }
+
+    /**
+     * Writes a row of a CSV file
+     */
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(Writer out, T row) throws IOException;
+    }
+
+    /**
+     * Streams a header and one line per row into a large buffered writer,
+     * so memory use does not depend on the number of rows
+     */
+    private <T> int writeCSV(Path filePath, String header, Iterator<T> rows, RowWriter<T> rowWriter)
+            throws IOException {
+        int count = 0;
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING),
+                StandardCharsets.UTF_8), WRITE_BUFFER_SIZE)) {
+            out.write(header);
+            out.write(System.lineSeparator());
+            while (rows.hasNext()) {
+                rowWriter.write(out, rows.next());
+                out.write(System.lineSeparator());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Tokenizes a CSV file record by record, skipping the header and blank
+     * lines, and hands each successfully mapped row to the sink. A single
+     * tokenizer is reused for the whole file; rows the mapper rejects are
+     * skipped and added to {@code errors} with their line numbers.
+     *
+     * @return the number of rows handed to the sink
+     */
+    private <T> int streamCSV(Path filePath, Function<CsvTokenizer, T> mapper, Consumer<T> sink,
+            List<String> errors) throws IOException {
+        if (!Files.exists(filePath)) {
+            return 0;
+        }
+
+        int count = 0;
+        try (Reader reader = Files.newBufferedReader(filePath)) {
+            CsvTokenizer record = new CsvTokenizer(reader);
+            record.skipRecord(); // Skip header
+            while (record.next()) {
+                T value;
+                try {
+                    value = mapper.apply(record);
+                } catch (RuntimeException e) {
+                    errors.add("Line " + record.lineNumber() + ": " + e.getMessage());
+                    continue;
+                }
+                sink.accept(value);
+                count++;
+            }
+        }
+        return count;
+    }
+
     private String getStudentCSVHeader() {
         return "StudentID,FirstName,LastName,Email,PhoneNumber,Address,DateOfBirth,EnrollmentDate,Status";
     }
@@ -258,192 +1096,428 @@ public class FileDataManager {
         return "EnrollmentID,StudentID,CourseCode,Semester,EnrollmentDate,Grade,Status,Notes";
     }
 
-    private String studentToCSVLine(Student student) {
-        return String.join(",",
-                escapeCSV(student.getStudentId()),
-                escapeCSV(student.getFirstName()),
-                escapeCSV(student.getLastName()),
-                escapeCSV(student.getEmail()),
-                escapeCSV(student.getPhoneNumber()),
-                escapeCSV(student.getAddress()),
-                student.getDateOfBirth().format(DATE_FORMATTER),
-                student.getEnrollmentDate().format(DATE_FORMATTER),
-                student.getStatus().toString().toUpperCase());
-    }
-
-    private String courseToCSVLine(Course course) {
-        return String.join(",",
-                escapeCSV(course.getCourseCode()),
-                escapeCSV(course.getCourseName()),
-                escapeCSV(course.getDescription()),
-                String.valueOf(course.getCredits()),
-                escapeCSV(course.getDepartment()),
-                escapeCSV(course.getInstructor()),
-                course.getStatus().toString().toUpperCase(),
-                escapeCSV(String.join(";", course.getPrerequisites())));
-    }
-
-    private String enrollmentToCSVLine(Enrollment enrollment) {
-        return String.join(",",
-                escapeCSV(enrollment.getEnrollmentId()),
-                escapeCSV(enrollment.getStudent().getStudentId()),
-                escapeCSV(enrollment.getCourse().getCourseCode()),
-                enrollment.getSemester().toString(),
-                enrollment.getEnrollmentDate().format(DATE_FORMATTER),
-                enrollment.getGrade() != null ? enrollment.getGrade().toString() : "",
-                enrollment.getStatus().toString().toUpperCase(),
-                escapeCSV(enrollment.getNotes()));
-    }
-
-    private Student csvLineToStudent(String line) {
-        try {
-            String[] fields = parseCSVLine(line);
-
-            return new Student.Builder()
-                    .studentId(fields[0])
-                    .firstName(fields[1])
-                    .lastName(fields[2])
-                    .email(fields[3])
-                    .phoneNumber(fields[4])
-                    .address(fields[5])
-                    .dateOfBirth(LocalDate.parse(fields[6], DATE_FORMATTER))
-                    .enrollmentDate(LocalDate.parse(fields[7], DATE_FORMATTER))
-                    .status(StudentStatus.valueOf(fields[8].toUpperCase()))
-                    .build();
-
-        } catch (Exception e) {
-            System.err.println("Error parsing student line: " + line + " - " + e.getMessage());
-            return null;
-        }
+    private void writeStudentRow(Writer out, Student student) throws IOException {
+        writeField(out, student.getStudentId());
+        out.write(',');
+        writeField(out, student.getFirstName());
+        out.write(',');
+        writeField(out, student.getLastName());
+        out.write(',');
+        writeField(out, student.getEmail());
+        out.write(',');
+        writeField(out, student.getPhoneNumber());
+        out.write(',');
+        writeField(out, student.getAddress());
+        out.write(',');
+        writeDate(out, student.getDateOfBirth());
+        out.write(',');
+        writeDate(out, student.getEnrollmentDate());
+        out.write(',');
+        out.write(student.getStatus().name());
     }
 
-    private Course csvLineToCourse(String line) {
-        try {
-            String[] fields = parseCSVLine(line);
-
-            Set<String> prerequisites = new HashSet<>();
-            if (!fields[7].isEmpty()) {
-                prerequisites = Arrays.stream(fields[7].split(";"))
-                        .filter(p -> !p.trim().isEmpty())
-                        .collect(Collectors.toSet());
-            }
-
-            return new Course.Builder()
-                    .courseCode(fields[0])
-                    .courseName(fields[1])
-                    .description(fields[2])
-                    .credits(Integer.parseInt(fields[3]))
-                    .department(fields[4])
-                    .instructor(fields[5])
-                    .status(CourseStatus.valueOf(fields[6].toUpperCase()))
-                    .prerequisites(prerequisites)
-                    .build();
-
-        } catch (Exception e) {
-            System.err.println("Error parsing course line: " + line + " - " + e.getMessage());
-            return null;
-        }
+    private void writeCourseRow(Writer out, Course course) throws IOException {
+        writeField(out, course.getCourseCode());
+        out.write(',');
+        writeField(out, course.getCourseName());
+        out.write(',');
+        writeField(out, course.getDescription());
+        out.write(',');
+        writeInt(out, course.getCredits());
+        out.write(',');
+        writeField(out, course.getDepartment());
+        out.write(',');
+        writeField(out, course.getInstructor());
+        out.write(',');
+        out.write(course.getStatus().name());
+        out.write(',');
+        writeField(out, String.join(";", course.getPrerequisites()));
     }
 
-    private Enrollment csvLineToEnrollment(String line) {
-        try {
-            String[] fields = parseCSVLine(line);
-
-            // Note: This is a simplified version. In a real application,
-            // you'd need to resolve the student and course objects from their IDs
-            // This would require access to the service layer or a repository pattern
-
-            // Parse semester from string like "SPRING 2024"
-            String[] semesterParts = fields[3].split(" ");
-            Semester semester = new Semester(Integer.parseInt(semesterParts[1]), semesterParts[0]);
-
-            return new Enrollment.Builder()
-                    .enrollmentId(fields[0])
-                    .student(createDummyStudent(fields[1])) // Temporary placeholder
-                    .course(createDummyCourse(fields[2])) // Temporary placeholder
-                    .semester(semester)
-                    .enrollmentDate(LocalDate.parse(fields[4], DATE_FORMATTER))
-                    .grade(fields[5].isEmpty() ? null : Grade.fromLetterGrade(fields[5]))
-                    .status(EnrollmentStatus.valueOf(fields[6].toUpperCase()))
-                    .notes(fields.length > 7 ? fields[7] : null)
-                    .build();
-
-        } catch (Exception e) {
-            System.err.println("Error parsing enrollment line: " + line + " - " + e.getMessage());
-            return null;
+    private void writeEnrollmentRow(Writer out, Enrollment enrollment) throws IOException {
+        writeField(out, enrollment.getEnrollmentId());
+        out.write(',');
+        writeField(out, enrollment.getStudent().getStudentId());
+        out.write(',');
+        writeField(out, enrollment.getCourse().getCourseCode());
+        out.write(',');
+        out.write(enrollment.getSemester().getSeason().name());
+        out.write(' ');
+        writeInt(out, enrollment.getSemester().getYear());
+        out.write(',');
+        writeDate(out, enrollment.getEnrollmentDate());
+        out.write(',');
+        if (enrollment.getGrade() != null) {
+            out.write(enrollment.getGrade().getDisplayValue());
         }
+        out.write(',');
+        out.write(enrollment.getStatus().name());
+        out.write(',');
+        writeField(out, enrollment.getNotes());
     }
 
-    private Student createDummyStudent(String studentId) {
-        // This is a temporary solution for demo purposes
-        // In a real application, you'd resolve this from the student service
+    private Student csvRecordToStudent(CsvTokenizer record) {
         return new Student.Builder()
-                .studentId(studentId)
-                .firstName("Unknown")
-                .lastName("Student")
-                .email("unknown@example.com")
-                .enrollmentDate(LocalDate.now())
+                .studentId(record.field(0))
+                .firstName(record.field(1))
+                .lastName(record.field(2))
+                .email(record.field(3))
+                .phoneNumber(record.field(4))
+                .address(record.field(5))
+                .dateOfBirth(record.dateField(6))
+                .enrollmentDate(record.dateField(7))
+                .status(record.enumField(8, STUDENT_STATUSES))
                 .build();
     }
 
-    private Course createDummyCourse(String courseCode) {
-        // This is a temporary solution for demo purposes
-        // In a real application, you'd resolve this from the course service
+    private Course csvRecordToCourse(CsvTokenizer record) {
+        Set<String> prerequisites = new HashSet<>();
+        if (!record.isEmpty(7)) {
+            for (String prerequisite : record.field(7).split(";")) {
+                if (!prerequisite.trim().isEmpty()) {
+                    prerequisites.add(prerequisite);
+                }
+            }
+        }
+
         return new Course.Builder()
-                .courseCode(courseCode)
-                .courseName("Unknown Course")
-                .credits(3)
-                .department("Unknown")
-                .instructor("Unknown")
+                .courseCode(record.field(0))
+                .courseName(record.field(1))
+                .description(record.field(2))
+                .credits(record.intField(3))
+                .department(record.field(4))
+                .instructor(record.field(5))
+                .status(record.enumField(6, COURSE_STATUSES))
+                .prerequisites(prerequisites)
                 .build();
     }
 
-    private String[] parseCSVLine(String line) {
-        List<String> fields = new ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder currentField = new StringBuilder();
+    private Enrollment csvRecordToEnrollment(CsvTokenizer record, StudentService studentService,
+            CourseService courseService) {
+        return new Enrollment.Builder()
+                .enrollmentId(record.field(0))
+                .student(studentService.getStudentById(record.field(1)))
+                .course(courseService.getCourseByCode(record.field(2)))
+                .semester(parseSemester(record, 3))
+                .enrollmentDate(record.dateField(4))
+                .grade(parseGrade(record, 5))
+                .status(record.enumField(6, ENROLLMENT_STATUSES))
+                .notes(record.optionalField(7))
+                .build();
+    }
 
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
+    /**
+     * Parses a semester field like "SPRING 2024" in place
+     */
+    private Semester parseSemester(CsvTokenizer record, int index) {
+        int space = record.indexOf(index, ' ');
+        if (space < 0) {
+            throw new IllegalArgumentException("Invalid semester: " + record.field(index));
+        }
+        return new Semester(
+                record.intField(index, space + 1, record.length(index)),
+                record.enumField(index, 0, space, SEASONS));
+    }
+
+    /**
+     * Parses a letter grade field, or null when the field is empty
+     */
+    private Grade parseGrade(CsvTokenizer record, int index) {
+        if (record.isEmpty(index)) {
+            return null;
+        }
+        for (Grade grade : GRADES) {
+            if (record.fieldEqualsIgnoreCase(index, grade.getDisplayValue())) {
+                return grade;
+            }
+        }
+        throw new IllegalArgumentException("Invalid grade: " + record.field(index));
+    }
 
+    /**
+     * Writes a field, quoting it only when it contains a separator, quote
+     * or line break
+     */
+    private void writeField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
             if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                fields.add(currentField.toString());
-                currentField = new StringBuilder();
-            } else {
-                currentField.append(c);
+                out.write('"');
             }
+            out.write(c);
         }
+        out.write('"');
+    }
 
-        fields.add(currentField.toString());
-        return fields.toArray(new String[0]);
+    /**
+     * Writes a non-negative int without creating a String
+     */
+    private void writeInt(Writer out, int value) throws IOException {
+        if (value < 0) {
+            out.write(Integer.toString(value));
+            return;
+        }
+        int divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.write('0' + (value / divisor) % 10);
+        }
+    }
+
+    /**
+     * Writes a date as yyyy-MM-dd, or nothing when it is null
+     */
+    private void writeDate(Writer out, LocalDate date) throws IOException {
+        if (date == null) {
+            return;
+        }
+        int year = date.getYear();
+        if (year < 1000 || year > 9999) {
+            out.write(date.format(DATE_FORMATTER));
+            return;
+        }
+        writeInt(out, year);
+        out.write('-');
+        writeTwoDigits(out, date.getMonthValue());
+        out.write('-');
+        writeTwoDigits(out, date.getDayOfMonth());
+    }
+
+    private void writeTwoDigits(Writer out, int value) throws IOException {
+        out.write('0' + value / 10);
+        out.write('0' + value % 10);
+    }
+
+    /**
+     * A per-file backup step
+     */
+    @FunctionalInterface
+    private interface FileTask<T, R> {
+        R apply(T file) throws IOException;
+    }
+
+    /**
+     * Runs a backup step for each file on the shared transfer threads
+     *
+     * @return the results in the order of the files
+     */
+    private <T, R> List<R> forEachFileParallel(List<T> files, FileTask<T, R> task) throws IOException {
+        try {
+            List<CompletableFuture<R>> futures = files.stream()
+                    .map(file -> CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return task.apply(file);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, TRANSFER_EXECUTOR))
+                    .collect(Collectors.toList());
+            return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reads a backup's size from its chunk manifest, or from the copied
+     * files for backups that predate chunking, and its creation time from
+     * its name
+     */
+    private BackupInfo readBackupInfo(Path backupPath) throws IOException {
+        String name = backupPath.getFileName().toString().substring(7); // Remove "backup_" prefix
+        Path manifestPath = backupPath.resolve(BackupManifest.FILE_NAME);
+
+        if (Files.exists(manifestPath)) {
+            long size = BackupManifest.read(manifestPath).getFiles().stream()
+                    .mapToLong(BackupManifest.FileEntry::getSize).sum();
+            return new BackupInfo(name, readCreationTime(name, manifestPath), size, true);
+        }
+
+        long size;
+        try (Stream<Path> files = Files.list(backupPath)) {
+            size = files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+        return new BackupInfo(name, readCreationTime(name, backupPath), size, false);
+    }
+
+    /**
+     * Takes a backup's creation time from the timestamp in its name, which
+     * copies and restores of the backup directory leave intact, falling
+     * back to the modification time of a file for names that do not parse
+     */
+    private static LocalDateTime readCreationTime(String name, Path fallback) throws IOException {
+        if (name.length() >= BACKUP_TIMESTAMP_PATTERN.length()) {
+            try {
+                return LocalDateTime.parse(name.substring(0, BACKUP_TIMESTAMP_PATTERN.length()),
+                        BACKUP_TIMESTAMP_FORMATTER);
+            } catch (DateTimeParseException e) {
+                // Not a name createBackup gave it
+            }
+        }
+        return toLocalDateTime(Files.getLastModifiedTime(fallback));
+    }
+
+    private static LocalDateTime toLocalDateTime(FileTime time) {
+        return LocalDateTime.ofInstant(time.toInstant(), ZoneId.systemDefault());
     }
 
-    private String escapeCSV(String value) {
-        if (value == null)
-            return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path file : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
         }
-        return value;
     }
 
-    private void copyFileToBackup(String fileName, Path backupPath) throws IOException {
-        Path sourceFile = Paths.get(DATA_DIR, fileName);
-        Path targetFile = backupPath.resolve(fileName);
+    /**
+     * Writes a backup's files into the staging directory and forces them,
+     * and the directory, to disk
+     */
+    private void stageBackup(Path backupPath) throws IOException {
+        Path stagingDir = Paths.get(DATA_DIR, RESTORE_STAGING_DIR);
+        deleteRecursively(stagingDir);
+        Files.createDirectories(stagingDir);
+
+        Path manifestPath = backupPath.resolve(BackupManifest.FILE_NAME);
+        if (Files.exists(manifestPath)) {
+            ChunkStore chunkStore = new ChunkStore(Paths.get(BACKUP_DIR, CHUNKS_DIR), false);
+            forEachFileParallel(BackupManifest.read(manifestPath).getFiles(), entry -> {
+                try (FileChannel channel = FileChannel.open(stagingDir.resolve(entry.getName()),
+                        StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                    OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE);
+                    chunkStore.restoreFile(entry, out);
+                    out.flush();
+                    channel.force(true);
+                }
+                return entry;
+            });
+        } else {
+            for (String fileName : List.of(STUDENTS_FILE, COURSES_FILE, ENROLLMENTS_FILE)) {
+                Path sourceFile = backupPath.resolve(fileName);
+                if (Files.exists(sourceFile)) {
+                    Path stagedFile = stagingDir.resolve(fileName);
+                    Files.copy(sourceFile, stagedFile);
+                    try (FileChannel channel = FileChannel.open(stagedFile, StandardOpenOption.WRITE)) {
+                        channel.force(true);
+                    }
+                }
+            }
+        }
 
-        if (Files.exists(sourceFile)) {
-            Files.copy(sourceFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+        // Stage the complete set: a data file the backup lacks is restored as
+        // empty, rather than left in place to mix with the restored files
+        Map<String, String> headers = Map.of(STUDENTS_FILE, getStudentCSVHeader(),
+                COURSES_FILE, getCourseCSVHeader(), ENROLLMENTS_FILE, getEnrollmentCSVHeader());
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            Path stagedFile = stagingDir.resolve(header.getKey());
+            if (!Files.exists(stagedFile)) {
+                try (FileChannel channel = FileChannel.open(stagedFile, StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE)) {
+                    channel.write(StandardCharsets.UTF_8.encode(header.getValue() + System.lineSeparator()));
+                    channel.force(true);
+                }
+            }
         }
+
+        forceDirectory(stagingDir);
     }
 
-    private void restoreFileFromBackup(String fileName, Path backupPath) throws IOException {
-        Path sourceFile = backupPath.resolve(fileName);
-        Path targetFile = Paths.get(DATA_DIR, fileName);
+    /**
+     * Loads the CSV files as the whole state and makes them the new base:
+     * discards the deltas and journal, which belong to an older snapshot,
+     * and writes a snapshot of what was loaded.
+     */
+    private Map<String, Integer> recoverFromCSV(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService, List<String> errors) throws DataImportException {
+        Map<String, Integer> counts = loadAllData(studentService, courseService, enrollmentService, errors);
+        try {
+            Path dataDir = Paths.get(DATA_DIR);
+            deleteRecursively(dataDir.resolve(CHECKPOINT_DIR));
+            Files.createDirectories(dataDir.resolve(CHECKPOINT_DIR));
+            deleteRecursively(dataDir.resolve(JOURNAL_DIR));
+            exportSnapshot(studentService, courseService, enrollmentService);
+        } catch (IOException | DataExportException e) {
+            throw new DataImportException("Data loaded from CSV, but the snapshot could not be written", e);
+        }
+        counts.put("checkpoint", 0);
+        counts.put("journal", 0);
+        return counts;
+    }
 
-        if (Files.exists(sourceFile)) {
-            Files.copy(sourceFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * Moves the staged files of a committed restore into place and discards
+     * the persisted state that predates it. Safe to repeat after a crash.
+     */
+    private void rollForwardRestore() throws IOException {
+        Path dataDir = Paths.get(DATA_DIR);
+        Path stagingDir = dataDir.resolve(RESTORE_STAGING_DIR);
+
+        if (Files.exists(stagingDir)) {
+            try (Stream<Path> files = Files.list(stagingDir)) {
+                for (Path stagedFile : (Iterable<Path>) files::iterator) {
+                    Files.move(stagedFile, dataDir.resolve(stagedFile.getFileName()),
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+        }
+
+        Files.deleteIfExists(dataDir.resolve(SNAPSHOT_FILE));
+        Files.deleteIfExists(dataDir.resolve(MAPPED_FILE));
+        deleteRecursively(dataDir.resolve(CHECKPOINT_DIR));
+        Files.createDirectories(dataDir.resolve(CHECKPOINT_DIR));
+        Journal current = journal;
+        if (current != null) {
+            current.deleteSegmentsBefore(current.rotate());
+        } else {
+            deleteRecursively(dataDir.resolve(JOURNAL_DIR));
+        }
+
+        deleteRecursively(stagingDir);
+        forceDirectory(dataDir);
+        Files.deleteIfExists(dataDir.resolve(RESTORE_MARKER_FILE));
+    }
+
+    /**
+     * Rolls forward a restore that committed before a crash, or discards
+     * one that did not get that far
+     */
+    private void completePendingRestore() throws IOException {
+        if (Files.exists(Paths.get(DATA_DIR, RESTORE_MARKER_FILE))) {
+            rollForwardRestore();
+        } else {
+            deleteRecursively(Paths.get(DATA_DIR, RESTORE_STAGING_DIR));
+        }
+    }
+
+    /**
+     * Forces a directory's entries to disk so renames into it are durable
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform; the file contents are forced regardless
         }
     }
 
@@ -457,11 +1531,19 @@ public class FileDataManager {
                 - %s
                 - %s
                 """,
-                LocalDate.now(),
+                LocalDateTime.now().withNano(0),
                 STUDENTS_FILE,
                 COURSES_FILE,
                 ENROLLMENTS_FILE);
 
         Files.write(backupPath.resolve("manifest.txt"), manifest.getBytes());
     }
+
+    private static void writeTranscript(Path directory, Student student) {
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(student.getStudentId() + ".txt"))) {
+            TranscriptWriter.write(student, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
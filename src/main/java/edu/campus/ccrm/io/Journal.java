@@ -0,0 +1,526 @@
+package edu.campus.ccrm.io;
+
+import edu.campus.ccrm.domain.*;
+import edu.campus.ccrm.service.*;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of service mutations.
+ *
+ * <p>
+ * Registered as a {@link MutationListener}, it appends the new state of
+ * every changed student, course or enrollment to the current segment file.
+ * Replaying a record is an upsert, so replay is idempotent and a journal
+ * can be applied on top of any snapshot taken while it was being written.
+ *
+ * <p>
+ * Writes are group-committed: a background flusher forces the segment to
+ * disk once {@code fsyncBatchSize} records are pending or the oldest one
+ * has waited {@code fsyncIntervalMillis}, making every record appended
+ * before the force durable at once. With {@code syncCommit} the mutating
+ * thread waits for that force before its service call returns; without it
+ * the journal trails memory by at most one interval.
+ *
+ * <p>
+ * Segment layout: magic number and version, then records framed as
+ * {@code [int length][int CRC-32][payload]}. Replay stops at the first
+ * torn or corrupt record of a segment and continues with the next one.
+ */
+public final class Journal implements MutationListener, Closeable {
+    static final int MAGIC = 0x43434A4C; // "CCJL"
+    static final int VERSION = 1;
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int SEGMENT_HEADER_SIZE = 8;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final MutationListener.Operation[] OPERATIONS = MutationListener.Operation.values();
+
+    private final Path directory;
+    private final boolean syncCommit;
+    private final long fsyncIntervalNanos;
+    private final int fsyncBatchSize;
+    private final long segmentSizeLimit;
+
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(512);
+    private final BinaryWriter encoder = new BinaryWriter(recordBytes, 512);
+    private final CRC32 crc = new CRC32();
+    private final ThreadLocal<Pending> pending = ThreadLocal.withInitial(Pending::new);
+    private final Thread flusher;
+
+    // Guarded by this
+    private Segment segment;
+    private long appendedSequence;
+    private long firstPendingNanos;
+    private long durableSequence;
+    private int waiters;
+    private IOException failure;
+    private boolean closed;
+
+    private Journal(Path directory, boolean syncCommit, long fsyncIntervalMillis, int fsyncBatchSize,
+            long segmentSizeLimit) throws IOException {
+        this.directory = directory;
+        this.syncCommit = syncCommit;
+        this.fsyncIntervalNanos = Math.max(1, fsyncIntervalMillis) * 1_000_000;
+        this.fsyncBatchSize = Math.max(1, fsyncBatchSize);
+        this.segmentSizeLimit = segmentSizeLimit;
+
+        Files.createDirectories(directory);
+        List<Long> existing = listSegments(directory);
+        this.segment = Segment.create(directory, existing.isEmpty() ? 1 : existing.get(existing.size() - 1) + 1);
+
+        this.flusher = new Thread(this::runFlusher, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Opens a journal in a directory, starting a new segment after any
+     * existing ones
+     */
+    public static Journal open(Path directory, boolean syncCommit, long fsyncIntervalMillis, int fsyncBatchSize,
+            long segmentSizeLimit) throws IOException {
+        return new Journal(directory, syncCommit, fsyncIntervalMillis, fsyncBatchSize, segmentSizeLimit);
+    }
+
+    // Mutation listener
+
+    @Override
+    public void studentChanged(Operation operation, Student student) {
+        append(operation, writer -> RecordCodec.writeStudent(writer, student));
+    }
+
+    @Override
+    public void courseChanged(Operation operation, Course course) {
+        append(operation, writer -> RecordCodec.writeCourse(writer, course));
+    }
+
+    @Override
+    public void enrollmentChanged(Operation operation, Enrollment enrollment) {
+        append(operation, writer -> RecordCodec.writeEnrollment(writer, enrollment));
+    }
+
+    /**
+     * Releases the record's segment for rotation and, with sync commit,
+     * waits until the record is on disk
+     */
+    @Override
+    public void mutationCompleted() {
+        Pending current = pending.get();
+        if (current.segment == null) {
+            return;
+        }
+        current.segment.inFlight.decrementAndGet();
+        current.segment = null;
+
+        if (syncCommit) {
+            awaitDurable(current.sequence);
+        }
+    }
+
+    // Segment management
+
+    /**
+     * Starts a new segment. Once this returns, every mutation journaled in
+     * an earlier segment has also been applied to the services, so a
+     * snapshot taken afterwards covers all of those segments.
+     *
+     * @return the index of the new segment
+     */
+    public long rotate() throws IOException {
+        Segment previous;
+        long index;
+        synchronized (this) {
+            checkOpen();
+            previous = segment;
+            previous.finish();
+            durableSequence = appendedSequence;
+            firstPendingNanos = 0;
+            notifyAll();
+            segment = Segment.create(directory, previous.index + 1);
+            index = segment.index;
+        }
+
+        while (previous.inFlight.get() > 0) {
+            Thread.onSpinWait();
+        }
+        return index;
+    }
+
+    /**
+     * Deletes the segments that precede a segment index
+     *
+     * @return the number of segments deleted
+     */
+    public int deleteSegmentsBefore(long index) throws IOException {
+        int deleted = 0;
+        for (long existing : listSegments(directory)) {
+            if (existing < index) {
+                Files.deleteIfExists(segmentPath(directory, existing));
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Gets the total size of the journal's segment files in bytes
+     */
+    public long size() throws IOException {
+        long total = 0;
+        for (long index : listSegments(directory)) {
+            total += Files.size(segmentPath(directory, index));
+        }
+        return total;
+    }
+
+    /**
+     * Forces everything appended so far to disk
+     */
+    public void sync() throws IOException {
+        long target;
+        FileChannel channel;
+        synchronized (this) {
+            if (failure != null) {
+                throw failure;
+            }
+            if (durableSequence == appendedSequence) {
+                return;
+            }
+            segment.out.flush();
+            target = appendedSequence;
+            channel = segment.channel;
+            firstPendingNanos = 0;
+        }
+
+        try {
+            channel.force(false);
+        } catch (ClosedChannelException e) {
+            // Rotated meanwhile; the old segment was forced before it closed
+        }
+
+        synchronized (this) {
+            if (target > durableSequence) {
+                durableSequence = target;
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * Flushes and closes the current segment and stops the flusher
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            segment.finish();
+            durableSequence = appendedSequence;
+            notifyAll();
+        }
+        flusher.interrupt();
+    }
+
+    // Replay
+
+    /**
+     * Applies every journal segment in a directory to the services, in
+     * order. Enrollments are loaded without validation; callers attach them
+     * to their students once replay is done.
+     *
+     * @return the number of students, courses and enrollments replayed,
+     *         and the number of records skipped
+     */
+    public static Map<String, Integer> replay(Path directory, StudentService studentService,
+            CourseService courseService, EnrollmentService enrollmentService) throws IOException {
+        int[] counts = new int[4];
+
+        for (long index : listSegments(directory)) {
+            Path path = segmentPath(directory, index);
+            try (InputStream in = Files.newInputStream(path)) {
+                BinaryReader reader = new BinaryReader(in);
+                if (!reader.hasMore()) {
+                    continue;
+                }
+                if (reader.readInt() != MAGIC || reader.readInt() > VERSION) {
+                    throw new IOException("Not a journal segment: " + path);
+                }
+
+                byte[] payload = new byte[512];
+                CRC32 checksum = new CRC32();
+                while (reader.hasMore()) {
+                    int length;
+                    int expected;
+                    try {
+                        length = reader.readInt();
+                        expected = reader.readInt();
+                        if (length < 0 || length > 64 * 1024 * 1024) {
+                            break;
+                        }
+                        if (length > payload.length) {
+                            payload = new byte[length];
+                        }
+                        reader.readFully(payload, length);
+                    } catch (EOFException e) {
+                        break; // Torn write at the end of the segment
+                    }
+
+                    checksum.reset();
+                    checksum.update(payload, 0, length);
+                    if ((int) checksum.getValue() != expected) {
+                        break;
+                    }
+
+                    try {
+                        counts[apply(new BinaryReader(new ByteArrayInputStream(payload, 0, length), length + 1),
+                                studentService, courseService, enrollmentService)]++;
+                    } catch (IOException | RuntimeException e) {
+                        counts[3]++;
+                    }
+                }
+            }
+        }
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put("students", counts[0]);
+        result.put("courses", counts[1]);
+        result.put("enrollments", counts[2]);
+        result.put("skipped", counts[3]);
+        return result;
+    }
+
+    // Private helper methods
+
+    private static int apply(BinaryReader reader, StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService) throws IOException {
+        int operation = reader.readByte();
+        if (operation >= OPERATIONS.length) {
+            throw new IOException("Unknown journal operation " + operation);
+        }
+
+        switch (OPERATIONS[operation]) {
+            case CREATE_STUDENT, UPDATE_STUDENT, DEACTIVATE_STUDENT -> {
+                studentService.addStudent(RecordCodec.readStudent(reader));
+                return 0;
+            }
+            case CREATE_COURSE, UPDATE_COURSE, DEACTIVATE_COURSE -> {
+                courseService.addCourse(RecordCodec.readCourse(reader));
+                return 1;
+            }
+            default -> {
+                enrollmentService.loadEnrollment(RecordCodec.readEnrollment(reader, studentService, courseService));
+                return 2;
+            }
+        }
+    }
+
+    private interface RecordWriter {
+        void write(BinaryWriter writer) throws IOException;
+    }
+
+    private synchronized void append(Operation operation, RecordWriter record) {
+        if (closed) {
+            return;
+        }
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+
+            recordBytes.reset();
+            encoder.resetSymbols();
+            encoder.writeByte(operation.ordinal());
+            record.write(encoder);
+            encoder.flush();
+
+            crc.reset();
+            crc.update(recordBytes.toByteArray());
+            DataOutputStream out = segment.out;
+            out.writeInt(recordBytes.size());
+            out.writeInt((int) crc.getValue());
+            recordBytes.writeTo(out);
+
+            appendedSequence++;
+            if (firstPendingNanos == 0) {
+                firstPendingNanos = System.nanoTime();
+                notifyAll(); // Start the flusher's interval
+            } else if (appendedSequence - durableSequence == fsyncBatchSize) {
+                notifyAll();
+            }
+
+            Pending current = pending.get();
+            current.sequence = appendedSequence;
+            if (current.segment == null) {
+                current.segment = segment;
+                segment.inFlight.incrementAndGet();
+            }
+
+            if (segment.out.size() >= segmentSizeLimit) {
+                rotateWhileLocked();
+            }
+        } catch (IOException e) {
+            failure = e;
+            notifyAll();
+            throw new UncheckedIOException("Journal write failed", e);
+        }
+    }
+
+    /**
+     * Moves on to a new segment when the current one is full. The old
+     * segment is not deleted, so no draining of in-flight mutations is
+     * needed here.
+     */
+    private void rotateWhileLocked() throws IOException {
+        segment.finish();
+        durableSequence = appendedSequence;
+        firstPendingNanos = 0;
+        notifyAll();
+        segment = Segment.create(directory, segment.index + 1);
+    }
+
+    private synchronized void awaitDurable(long sequence) {
+        if (durableSequence >= sequence) {
+            return;
+        }
+
+        waiters++;
+        if (waiters >= appendedSequence - durableSequence) {
+            notifyAll(); // Every pending record has a committer waiting, so waiting longer gains nothing
+        }
+        try {
+            while (durableSequence < sequence && failure == null && !closed) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            waiters--;
+        }
+        if (durableSequence < sequence && failure != null) {
+            throw new UncheckedIOException("Journal write failed", failure);
+        }
+    }
+
+    private void runFlusher() {
+        while (true) {
+            synchronized (this) {
+                try {
+                    while (!closed && !flushDue()) {
+                        if (firstPendingNanos == 0) {
+                            wait();
+                        } else {
+                            long waitNanos = fsyncIntervalNanos - (System.nanoTime() - firstPendingNanos);
+                            if (waitNanos > 0) {
+                                wait(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (closed) {
+                    return;
+                }
+            }
+
+            try {
+                sync();
+            } catch (IOException e) {
+                synchronized (this) {
+                    failure = e;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the pending records have reached the batch size, the
+     * oldest of them has waited a full interval, or every one of them has
+     * a committer blocked on it
+     */
+    private boolean flushDue() {
+        long unsynced = appendedSequence - durableSequence;
+        return unsynced > 0 && (unsynced >= fsyncBatchSize || waiters >= unsynced
+                || System.nanoTime() - firstPendingNanos >= fsyncIntervalNanos);
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Journal is closed");
+        }
+    }
+
+    private static List<Long> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static Path segmentPath(Path directory, long index) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * The segment and sequence number of the record a thread appended in
+     * its current mutation
+     */
+    private static final class Pending {
+        private Segment segment;
+        private long sequence;
+    }
+
+    /**
+     * An open segment file. {@code inFlight} counts mutations journaled in
+     * this segment whose service call has not completed yet.
+     */
+    private static final class Segment {
+        private final long index;
+        private final FileChannel channel;
+        private final DataOutputStream out;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private Segment(long index, FileChannel channel) {
+            this.index = index;
+            this.channel = channel;
+            this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel),
+                    WRITE_BUFFER_SIZE));
+        }
+
+        static Segment create(Path directory, long index) throws IOException {
+            FileChannel channel = FileChannel.open(segmentPath(directory, index), StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE);
+            Segment segment = new Segment(index, channel);
+            segment.out.writeInt(MAGIC);
+            segment.out.writeInt(VERSION);
+            return segment;
+        }
+
+        void finish() throws IOException {
+            out.flush();
+            channel.force(false);
+            channel.close();
+        }
+    }
+}
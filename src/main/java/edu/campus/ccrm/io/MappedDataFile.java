@@ -0,0 +1,487 @@
+package edu.campus.ccrm.io;
+
+import edu.campus.ccrm.domain.*;
+import edu.campus.ccrm.domain.enums.*;
+import edu.campus.ccrm.exception.CourseNotFoundException;
+import edu.campus.ccrm.exception.StudentNotFoundException;
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Read-only, fixed-layout data file for reporting.
+ *
+ * <p>
+ * The file is memory-mapped and queried in place: students and courses are
+ * fixed-size records sorted by ID, enrollments are stored grouped by
+ * student (so a transcript is one contiguous range) and a roster index
+ * lists each course's enrollments. Strings live in a deduplicated pool and
+ * are referenced by offset. Domain objects are only created for the
+ * records a query touches, and several JVMs mapping the same file share
+ * its pages through the OS page cache.
+ *
+ * <p>
+ * Layout (big-endian, all offsets relative to the start of the file):
+ *
+ * <pre>
+ * header      magic, version, counts, table offsets      (48 bytes)
+ * students    id, names, contact refs, dates, status,
+ *             first enrollment, enrollment count         (48 bytes each)
+ * courses     code, name, description, credits, department,
+ *             instructor, status, prerequisites,
+ *             first roster slot, roster size             (40 bytes each)
+ * enrollments id, student, course, semester, dates,
+ *             grade, status, notes                       (32 bytes each)
+ * rosters     enrollment indexes grouped by course       (4 bytes each)
+ * strings     length-prefixed UTF-8                      (variable)
+ * </pre>
+ *
+ * The file is limited to 2 GB, the size of a single mapping.
+ */
+public final class MappedDataFile implements Closeable {
+    static final int MAGIC = 0x43435244; // "CCRD"
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 48;
+    private static final int STUDENT_SIZE = 48;
+    private static final int COURSE_SIZE = 40;
+    private static final int ENROLLMENT_SIZE = 32;
+    private static final int NULL_REF = -1;
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+
+    private static final StudentStatus[] STUDENT_STATUSES = StudentStatus.values();
+    private static final CourseStatus[] COURSE_STATUSES = CourseStatus.values();
+    private static final EnrollmentStatus[] ENROLLMENT_STATUSES = EnrollmentStatus.values();
+    private static final Semester.Season[] SEASONS = Semester.Season.values();
+    private static final Grade[] GRADES = Grade.values();
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int studentCount;
+    private final int courseCount;
+    private final int enrollmentCount;
+    private final int studentTable;
+    private final int courseTable;
+    private final int enrollmentTable;
+    private final int rosterTable;
+    private final int stringPool;
+
+    private MappedDataFile(FileChannel channel, MappedByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a mapped data file");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported mapped data file version " + version);
+        }
+        this.studentCount = buffer.getInt(8);
+        this.courseCount = buffer.getInt(12);
+        this.enrollmentCount = buffer.getInt(16);
+        this.studentTable = buffer.getInt(20);
+        this.courseTable = buffer.getInt(24);
+        this.enrollmentTable = buffer.getInt(28);
+        this.rosterTable = buffer.getInt(32);
+        this.stringPool = buffer.getInt(36);
+    }
+
+    /**
+     * Maps a data file read-only
+     */
+    public static MappedDataFile open(Path filePath) throws IOException {
+        FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Mapped data file too large: " + filePath);
+            }
+            return new MappedDataFile(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the channel. The mapping itself is released by the garbage
+     * collector once no buffer refers to it.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    public int getCourseCount() {
+        return courseCount;
+    }
+
+    public int getEnrollmentCount() {
+        return enrollmentCount;
+    }
+
+    /**
+     * Materializes a student together with their enrollments
+     */
+    public Student getStudentById(String studentId) {
+        int index = findStudent(studentId);
+        Student student = readStudent(index);
+        return student.withEnrollments(readStudentEnrollments(index, student));
+    }
+
+    /**
+     * Materializes a course
+     */
+    public Course getCourseByCode(String courseCode) {
+        return readCourse(findCourse(courseCode));
+    }
+
+    /**
+     * Gets a student's enrollments ordered by semester and course code
+     */
+    public List<Enrollment> getTranscript(String studentId) {
+        int index = findStudent(studentId);
+        return readStudentEnrollments(index, readStudent(index));
+    }
+
+    /**
+     * Gets a course's enrollments ordered by semester and student last name
+     */
+    public List<Enrollment> getCourseRoster(String courseCode) {
+        int courseIndex = findCourse(courseCode);
+        Course course = readCourse(courseIndex);
+        int record = courseTable + courseIndex * COURSE_SIZE;
+        int first = buffer.getInt(record + 32);
+        int count = buffer.getInt(record + 36);
+
+        List<Enrollment> roster = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int enrollmentIndex = buffer.getInt(rosterTable + (first + i) * 4);
+            int studentIndex = buffer.getInt(enrollmentTable + enrollmentIndex * ENROLLMENT_SIZE + 4);
+            roster.add(readEnrollment(enrollmentIndex, readStudent(studentIndex), course));
+        }
+        return roster;
+    }
+
+    // Lookup
+
+    private int findStudent(String studentId) {
+        int index = binarySearch(studentTable, STUDENT_SIZE, studentCount, studentId);
+        if (index < 0) {
+            throw new StudentNotFoundException("Student not found with ID: " + studentId);
+        }
+        return index;
+    }
+
+    private int findCourse(String courseCode) {
+        int index = binarySearch(courseTable, COURSE_SIZE, courseCount, courseCode);
+        if (index < 0) {
+            throw new CourseNotFoundException("Course not found with code: " + courseCode);
+        }
+        return index;
+    }
+
+    /**
+     * Binary search over a table whose records start with a key string
+     * reference; only the probed keys are decoded
+     */
+    private int binarySearch(int table, int recordSize, int count, String key) {
+        int low = 0;
+        int high = count - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = readString(buffer.getInt(table + mid * recordSize)).compareTo(key);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // Materialization
+
+    private Student readStudent(int index) {
+        int record = studentTable + index * STUDENT_SIZE;
+        return new Student.Builder()
+                .studentId(readString(buffer.getInt(record)))
+                .firstName(readString(buffer.getInt(record + 4)))
+                .lastName(readString(buffer.getInt(record + 8)))
+                .email(readString(buffer.getInt(record + 12)))
+                .phoneNumber(readString(buffer.getInt(record + 16)))
+                .address(readString(buffer.getInt(record + 20)))
+                .dateOfBirth(readDate(buffer.getInt(record + 24)))
+                .enrollmentDate(readDate(buffer.getInt(record + 28)))
+                .status(readEnum(buffer.get(record + 32), STUDENT_STATUSES))
+                .build();
+    }
+
+    private List<Enrollment> readStudentEnrollments(int studentIndex, Student student) {
+        int record = studentTable + studentIndex * STUDENT_SIZE;
+        int first = buffer.getInt(record + 36);
+        int count = buffer.getInt(record + 40);
+
+        Map<Integer, Course> courses = new HashMap<>();
+        List<Enrollment> enrollments = new ArrayList<>(count);
+        for (int i = first; i < first + count; i++) {
+            int courseIndex = buffer.getInt(enrollmentTable + i * ENROLLMENT_SIZE + 8);
+            Course course = courses.computeIfAbsent(courseIndex, this::readCourse);
+            enrollments.add(readEnrollment(i, student, course));
+        }
+        return enrollments;
+    }
+
+    private Course readCourse(int index) {
+        int record = courseTable + index * COURSE_SIZE;
+        Course.Builder builder = new Course.Builder()
+                .courseCode(readString(buffer.getInt(record)))
+                .courseName(readString(buffer.getInt(record + 4)))
+                .description(readString(buffer.getInt(record + 8)))
+                .credits(buffer.getInt(record + 12))
+                .department(readString(buffer.getInt(record + 16)))
+                .instructor(readString(buffer.getInt(record + 20)))
+                .status(readEnum(buffer.get(record + 24), COURSE_STATUSES));
+
+        String prerequisites = readString(buffer.getInt(record + 28));
+        if (prerequisites != null) {
+            for (String prerequisite : prerequisites.split(";")) {
+                builder.addPrerequisite(prerequisite);
+            }
+        }
+        return builder.build();
+    }
+
+    private Enrollment readEnrollment(int index, Student student, Course course) {
+        int record = enrollmentTable + index * ENROLLMENT_SIZE;
+        return new Enrollment.Builder()
+                .enrollmentId(readString(buffer.getInt(record)))
+                .student(student)
+                .course(course)
+                .semester(new Semester(buffer.getInt(record + 12), readEnum(buffer.get(record + 16), SEASONS)))
+                .grade(readEnum(buffer.get(record + 17), GRADES))
+                .status(readEnum(buffer.get(record + 18), ENROLLMENT_STATUSES))
+                .enrollmentDate(readDate(buffer.getInt(record + 20)))
+                .notes(readString(buffer.getInt(record + 24)))
+                .build();
+    }
+
+    private String readString(int ref) {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        int offset = stringPool + ref;
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        buffer.get(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDate readDate(int epochDay) {
+        return epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static <E extends Enum<E>> E readEnum(byte ordinal, E[] values) {
+        return ordinal < 0 ? null : values[ordinal];
+    }
+
+    // Writing
+
+    /**
+     * Writes a data file to a temporary file, forces it to disk and moves
+     * it over the target, so open mappings of the old file stay valid
+     *
+     * @return the number of records written
+     */
+    public static int write(Path filePath, Collection<Course> courses, Collection<Student> students,
+            Collection<Enrollment> enrollments) throws IOException {
+        List<Student> sortedStudents = new ArrayList<>(students);
+        sortedStudents.sort(Comparator.comparing(Student::getStudentId));
+        List<Course> sortedCourses = new ArrayList<>(courses);
+        sortedCourses.sort(Comparator.comparing(Course::getCourseCode));
+
+        Map<String, Integer> studentIndexes = new HashMap<>();
+        for (int i = 0; i < sortedStudents.size(); i++) {
+            studentIndexes.put(sortedStudents.get(i).getStudentId(), i);
+        }
+        Map<String, Integer> courseIndexes = new HashMap<>();
+        for (int i = 0; i < sortedCourses.size(); i++) {
+            courseIndexes.put(sortedCourses.get(i).getCourseCode(), i);
+        }
+
+        // Enrollments grouped by student, then in transcript order
+        List<Enrollment> sortedEnrollments = new ArrayList<>(enrollments.size());
+        for (Enrollment enrollment : enrollments) {
+            if (studentIndexes.containsKey(enrollment.getStudent().getStudentId())
+                    && courseIndexes.containsKey(enrollment.getCourse().getCourseCode())) {
+                sortedEnrollments.add(enrollment);
+            }
+        }
+        sortedEnrollments.sort(Comparator
+                .comparing((Enrollment e) -> studentIndexes.get(e.getStudent().getStudentId()))
+                .thenComparing(Enrollment::getSemester)
+                .thenComparing(e -> e.getCourse().getCourseCode())
+                .thenComparing(Enrollment::getEnrollmentId));
+
+        int[] firstEnrollment = new int[sortedStudents.size()];
+        int[] enrollmentCounts = new int[sortedStudents.size()];
+        List<List<Integer>> rosters = new ArrayList<>(sortedCourses.size());
+        for (int i = 0; i < sortedCourses.size(); i++) {
+            rosters.add(new ArrayList<>());
+        }
+        for (int i = sortedEnrollments.size() - 1; i >= 0; i--) {
+            Enrollment enrollment = sortedEnrollments.get(i);
+            int studentIndex = studentIndexes.get(enrollment.getStudent().getStudentId());
+            firstEnrollment[studentIndex] = i;
+            enrollmentCounts[studentIndex]++;
+            rosters.get(courseIndexes.get(enrollment.getCourse().getCourseCode())).add(i);
+        }
+        for (List<Integer> roster : rosters) {
+            roster.sort(Comparator.comparing((Integer i) -> sortedEnrollments.get(i).getSemester())
+                    .thenComparing(i -> sortedEnrollments.get(i).getStudent().getLastName()));
+        }
+
+        long studentTable = HEADER_SIZE;
+        long courseTable = studentTable + (long) sortedStudents.size() * STUDENT_SIZE;
+        long enrollmentTable = courseTable + (long) sortedCourses.size() * COURSE_SIZE;
+        long rosterTable = enrollmentTable + (long) sortedEnrollments.size() * ENROLLMENT_SIZE;
+        long stringPool = rosterTable + (long) sortedEnrollments.size() * 4;
+
+        StringPool strings = new StringPool();
+        Path tempPath = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+
+        try (FileChannel out = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream data = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(out), 256 * 1024));
+
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeInt(sortedStudents.size());
+            data.writeInt(sortedCourses.size());
+            data.writeInt(sortedEnrollments.size());
+            data.writeInt((int) studentTable);
+            data.writeInt((int) courseTable);
+            data.writeInt((int) enrollmentTable);
+            data.writeInt((int) rosterTable);
+            data.writeInt((int) stringPool);
+            data.write(new byte[HEADER_SIZE - 40]);
+
+            for (int i = 0; i < sortedStudents.size(); i++) {
+                Student student = sortedStudents.get(i);
+                data.writeInt(strings.ref(student.getStudentId()));
+                data.writeInt(strings.ref(student.getFirstName()));
+                data.writeInt(strings.ref(student.getLastName()));
+                data.writeInt(strings.ref(student.getEmail()));
+                data.writeInt(strings.ref(student.getPhoneNumber()));
+                data.writeInt(strings.ref(student.getAddress()));
+                data.writeInt(dateValue(student.getDateOfBirth()));
+                data.writeInt(dateValue(student.getEnrollmentDate()));
+                data.writeInt(enumValue(student.getStatus()) << 24);
+                data.writeInt(firstEnrollment[i]);
+                data.writeInt(enrollmentCounts[i]);
+                data.writeInt(0);
+            }
+
+            int rosterStart = 0;
+            for (int i = 0; i < sortedCourses.size(); i++) {
+                Course course = sortedCourses.get(i);
+                data.writeInt(strings.ref(course.getCourseCode()));
+                data.writeInt(strings.ref(course.getCourseName()));
+                data.writeInt(strings.ref(course.getDescription()));
+                data.writeInt(course.getCredits());
+                data.writeInt(strings.ref(course.getDepartment()));
+                data.writeInt(strings.ref(course.getInstructor()));
+                data.writeInt(enumValue(course.getStatus()) << 24);
+                data.writeInt(strings.ref(course.getPrerequisites().isEmpty() ? null
+                        : String.join(";", new TreeSet<>(course.getPrerequisites()))));
+                data.writeInt(rosterStart);
+                data.writeInt(rosters.get(i).size());
+                rosterStart += rosters.get(i).size();
+            }
+
+            for (Enrollment enrollment : sortedEnrollments) {
+                data.writeInt(strings.ref(enrollment.getEnrollmentId()));
+                data.writeInt(studentIndexes.get(enrollment.getStudent().getStudentId()));
+                data.writeInt(courseIndexes.get(enrollment.getCourse().getCourseCode()));
+                data.writeInt(enrollment.getSemester().getYear());
+                data.writeByte(enumValue(enrollment.getSemester().getSeason()));
+                data.writeByte(enumValue(enrollment.getGrade()));
+                data.writeByte(enumValue(enrollment.getStatus()));
+                data.writeByte(0);
+                data.writeInt(dateValue(enrollment.getEnrollmentDate()));
+                data.writeInt(strings.ref(enrollment.getNotes()));
+                data.writeInt(0);
+            }
+
+            for (List<Integer> roster : rosters) {
+                for (int enrollmentIndex : roster) {
+                    data.writeInt(enrollmentIndex);
+                }
+            }
+
+            if (stringPool + strings.size() > Integer.MAX_VALUE) {
+                throw new IOException("Data too large for a mapped data file");
+            }
+            strings.writeTo(data);
+            data.flush();
+            out.force(true);
+        }
+
+        Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return sortedStudents.size() + sortedCourses.size() + sortedEnrollments.size();
+    }
+
+    private static int dateValue(LocalDate date) {
+        return date == null ? NULL_DATE : (int) date.toEpochDay();
+    }
+
+    private static int enumValue(Enum<?> value) {
+        return value == null ? 0xFF : value.ordinal();
+    }
+
+    /**
+     * Deduplicating string pool assembled in memory while records are written
+     */
+    private static final class StringPool {
+        private final Map<String, Integer> offsets = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        int ref(String value) {
+            if (value == null) {
+                return NULL_REF;
+            }
+            Integer offset = offsets.get(value);
+            if (offset == null) {
+                offset = bytes.size();
+                byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                bytes.write(encoded.length >>> 24);
+                bytes.write(encoded.length >>> 16);
+                bytes.write(encoded.length >>> 8);
+                bytes.write(encoded.length);
+                bytes.writeBytes(encoded);
+                offsets.put(value, offset);
+            }
+            return offset;
+        }
+
+        long size() {
+            return bytes.size();
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            bytes.writeTo(out);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package edu.campus.ccrm.io;
+
+import edu.campus.ccrm.domain.*;
+import edu.campus.ccrm.domain.enums.*;
+import edu.campus.ccrm.service.*;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Binary encoding of single student, course and enrollment records, shared
+ * by the snapshot and journal formats. Enrollments refer to their student
+ * and course by ID and are resolved against the services when read.
+ */
+final class RecordCodec {
+    private static final StudentStatus[] STUDENT_STATUSES = StudentStatus.values();
+    private static final CourseStatus[] COURSE_STATUSES = CourseStatus.values();
+    private static final EnrollmentStatus[] ENROLLMENT_STATUSES = EnrollmentStatus.values();
+    private static final Semester.Season[] SEASONS = Semester.Season.values();
+    private static final Grade[] GRADES = Grade.values();
+
+    private RecordCodec() {
+    }
+
+    static void writeCourse(BinaryWriter writer, Course course) throws IOException {
+        writer.writeSymbol(course.getCourseCode());
+        writer.writeString(course.getCourseName());
+        writer.writeString(course.getDescription());
+        writer.writeVarInt(course.getCredits());
+        writer.writeSymbol(course.getDepartment());
+        writer.writeSymbol(course.getInstructor());
+        writer.writeEnum(course.getStatus());
+
+        writer.writeVarInt(course.getPrerequisites().size());
+        for (String prerequisite : course.getPrerequisites()) {
+            writer.writeSymbol(prerequisite);
+        }
+        writer.writeVarInt(course.getCourseSchedule().size());
+        for (Map.Entry<String, String> slot : course.getCourseSchedule().entrySet()) {
+            writer.writeSymbol(slot.getKey());
+            writer.writeSymbol(slot.getValue());
+        }
+    }
+
+    static Course readCourse(BinaryReader reader) throws IOException {
+        Course.Builder builder = new Course.Builder()
+                .courseCode(reader.readSymbol())
+                .courseName(reader.readString())
+                .description(reader.readString())
+                .credits(reader.readVarInt())
+                .department(reader.readSymbol())
+                .instructor(reader.readSymbol())
+                .status(reader.readEnum(COURSE_STATUSES));
+
+        for (int i = reader.readVarInt(); i > 0; i--) {
+            builder.addPrerequisite(reader.readSymbol());
+        }
+        for (int i = reader.readVarInt(); i > 0; i--) {
+            builder.addSchedule(reader.readSymbol(), reader.readSymbol());
+        }
+        return builder.build();
+    }
+
+    static void writeStudent(BinaryWriter writer, Student student) throws IOException {
+        writer.writeSymbol(student.getStudentId());
+        writer.writeString(student.getFirstName());
+        writer.writeString(student.getLastName());
+        writer.writeString(student.getEmail());
+        writer.writeString(student.getPhoneNumber());
+        writer.writeString(student.getAddress());
+        writer.writeDate(student.getDateOfBirth());
+        writer.writeDate(student.getEnrollmentDate());
+        writer.writeEnum(student.getStatus());
+    }
+
+    static Student readStudent(BinaryReader reader) throws IOException {
+        return new Student.Builder()
+                .studentId(reader.readSymbol())
+                .firstName(reader.readString())
+                .lastName(reader.readString())
+                .email(reader.readString())
+                .phoneNumber(reader.readString())
+                .address(reader.readString())
+                .dateOfBirth(reader.readDate())
+                .enrollmentDate(reader.readDate())
+                .status(reader.readEnum(STUDENT_STATUSES))
+                .build();
+    }
+
+    static void writeEnrollment(BinaryWriter writer, Enrollment enrollment) throws IOException {
+        writer.writeString(enrollment.getEnrollmentId());
+        writer.writeSymbol(enrollment.getStudent().getStudentId());
+        writer.writeSymbol(enrollment.getCourse().getCourseCode());
+        writer.writeVarInt(enrollment.getSemester().getYear());
+        writer.writeEnum(enrollment.getSemester().getSeason());
+        writer.writeDate(enrollment.getEnrollmentDate());
+        writer.writeEnum(enrollment.getGrade());
+        writer.writeEnum(enrollment.getStatus());
+        writer.writeString(enrollment.getNotes());
+    }
+
+    static Enrollment readEnrollment(BinaryReader reader, StudentService studentService,
+            CourseService courseService) throws IOException {
+        String enrollmentId = reader.readString();
+        String studentId = reader.readSymbol();
+        String courseCode = reader.readSymbol();
+
+        try {
+            return new Enrollment.Builder()
+                    .enrollmentId(enrollmentId)
+                    .student(studentService.getStudentById(studentId))
+                    .course(courseService.getCourseByCode(courseCode))
+                    .semester(new Semester(reader.readVarInt(), reader.readEnum(SEASONS)))
+                    .enrollmentDate(reader.readDate())
+                    .grade(reader.readEnum(GRADES))
+                    .status(reader.readEnum(ENROLLMENT_STATUSES))
+                    .notes(reader.readString())
+                    .build();
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid enrollment " + enrollmentId + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package edu.campus.ccrm.io;
+
+import java.util.*;
+
+/**
+ * Timing and record counts for a multi-file import or export.
+ * Collects one entry per file plus the overall wall-clock time, so the
+ * saving from running files concurrently can be seen directly.
+ */
+public class TransferReport {
+    private final Map<String, Entry> entries = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+    private long wallClockNanos;
+
+    /**
+     * Records the outcome of transferring one file
+     */
+    public void record(String fileName, int records, long elapsedNanos) {
+        entries.put(fileName, new Entry(records, elapsedNanos));
+    }
+
+    /**
+     * Records rows of a file that were skipped, each prefixed with the file name
+     */
+    public void addErrors(String fileName, List<String> fileErrors) {
+        for (String error : fileErrors) {
+            errors.add(fileName + " " + error);
+        }
+    }
+
+    void setWallClockNanos(long wallClockNanos) {
+        this.wallClockNanos = wallClockNanos;
+    }
+
+    /**
+     * Gets the number of records transferred for a file
+     */
+    public int getRecords(String fileName) {
+        Entry entry = entries.get(fileName);
+        return entry != null ? entry.records : 0;
+    }
+
+    /**
+     * Gets the time spent on a single file
+     */
+    public long getMillis(String fileName) {
+        Entry entry = entries.get(fileName);
+        return entry != null ? entry.elapsedNanos / 1_000_000 : 0;
+    }
+
+    /**
+     * Gets the rows that were skipped, in file order
+     */
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+
+    /**
+     * Gets the elapsed time of the whole transfer
+     */
+    public long getWallClockMillis() {
+        return wallClockNanos / 1_000_000;
+    }
+
+    /**
+     * Gets the time the files would have taken one after another
+     */
+    public long getSequentialMillis() {
+        synchronized (entries) {
+            return entries.values().stream().mapToLong(e -> e.elapsedNanos).sum() / 1_000_000;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        synchronized (entries) {
+            entries.forEach((fileName, entry) -> report.append(String.format("  %-18s %8d records %8d ms%n",
+                    fileName, entry.records, entry.elapsedNanos / 1_000_000)));
+        }
+        report.append(String.format("  Wall clock: %d ms (sum of files: %d ms)%n",
+                getWallClockMillis(), getSequentialMillis()));
+        if (!errors.isEmpty()) {
+            report.append(String.format("  Skipped rows: %d%n", errors.size()));
+        }
+        return report.toString();
+    }
+
+    private static final class Entry {
+        private final int records;
+        private final long elapsedNanos;
+
+        Entry(int records, long elapsedNanos) {
+            this.records = records;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package edu.campus.ccrm.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size latency histogram with log-linear buckets, in the style of
+ * HdrHistogram. Values below 128 ns get a bucket each; above that every
+ * power of two is split into 64 buckets, so a recorded value is reported
+ * to within about 1.6%. Values of 2^40 ns (about 18 minutes) or more are
+ * recorded as that maximum.
+ *
+ * <p>
+ * Recording only increments atomic counters and never allocates, so it
+ * is safe to call on hot paths from any number of threads.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+    private static final int MAX_VALUE_BITS = 40;
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT
+            + (MAX_VALUE_BITS - SUB_BUCKET_BITS) * SUB_BUCKET_HALF;
+
+    private final AtomicLongArray buckets;
+    private final AtomicLong totalNanos;
+    private final AtomicLong maxNanos;
+
+    public LatencyHistogram() {
+        this.buckets = new AtomicLongArray(BUCKET_COUNT);
+        this.totalNanos = new AtomicLong();
+        this.maxNanos = new AtomicLong();
+    }
+
+    /**
+     * Records one observed latency
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(0, nanos), MAX_VALUE);
+        buckets.incrementAndGet(bucketOf(value));
+        totalNanos.addAndGet(value);
+        maxNanos.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Clears all recorded values. Values recorded concurrently may be
+     * partly kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    /**
+     * Gets the count, mean, maximum and 50th, 90th, 99th and 99.9th
+     * percentile latencies in microseconds, from a copy of the buckets
+     */
+    public Map<String, Object> getStatistics() {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        long max = maxNanos.get();
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("count", count);
+        statistics.put("meanMicros", count == 0 ? 0.0 : totalNanos.get() / 1_000.0 / count);
+        statistics.put("p50Micros", percentile(counts, count, max, 50.0) / 1_000.0);
+        statistics.put("p90Micros", percentile(counts, count, max, 90.0) / 1_000.0);
+        statistics.put("p99Micros", percentile(counts, count, max, 99.0) / 1_000.0);
+        statistics.put("p999Micros", percentile(counts, count, max, 99.9) / 1_000.0);
+        statistics.put("maxMicros", max / 1_000.0);
+        statistics.put("totalMillis", totalNanos.get() / 1_000_000.0);
+        return statistics;
+    }
+
+    // Private helper methods
+
+    private static long percentile(long[] counts, long count, long max, double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + subBucket - SUB_BUCKET_HALF;
+    }
+
+    private static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        long subBucket = (bucket - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
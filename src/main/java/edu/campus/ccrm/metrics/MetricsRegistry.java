@@ -0,0 +1,164 @@
+package edu.campus.ccrm.metrics;
+
+import edu.campus.ccrm.config.ApplicationConfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of per-operation call counts and latency histograms.
+ * Implements the Singleton pattern so services and the file manager share
+ * one set of metrics. Recording is turned off by {@code metrics.enabled}.
+ *
+ * <p>
+ * Operations are timed by wrapping their body:
+ *
+ * <pre>
+ * return METRICS.time("StudentService.getStudentById", () -&gt; ...);
+ * </pre>
+ *
+ * Only the outermost timed operation on a thread is recorded, so an
+ * operation that calls others, in the same service or another, counts
+ * as one call.
+ */
+public final class MetricsRegistry {
+    private static volatile MetricsRegistry instance;
+    private static final ThreadLocal<int[]> NESTING = ThreadLocal.withInitial(() -> new int[1]);
+    private final Map<String, OperationMetrics> operations;
+    private final boolean enabled;
+
+    private MetricsRegistry() {
+        this.operations = new ConcurrentHashMap<>();
+        this.enabled = ApplicationConfig.getInstance().isMetricsEnabled();
+    }
+
+    /**
+     * Gets the singleton instance of the registry
+     */
+    public static MetricsRegistry getInstance() {
+        if (instance == null) {
+            synchronized (MetricsRegistry.class) {
+                if (instance == null) {
+                    instance = new MetricsRegistry();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the metrics for an operation, registering it on first use
+     */
+    public OperationMetrics operation(String name) {
+        return operations.computeIfAbsent(name, key -> new OperationMetrics(key, enabled));
+    }
+
+    /**
+     * Runs an operation that returns a value, recording its latency under
+     * the given name unless it was called from another timed operation
+     */
+    public <T, E extends Exception> T time(String name, TimedCall<T, E> call) throws E {
+        if (!enabled) {
+            return call.call();
+        }
+        int[] depth = NESTING.get();
+        long startNanos = System.nanoTime();
+        depth[0]++;
+        try {
+            return call.call();
+        } finally {
+            if (--depth[0] == 0) {
+                operation(name).record(startNanos);
+            }
+        }
+    }
+
+    /**
+     * Runs an operation that returns nothing, recording its latency under
+     * the given name unless it was called from another timed operation
+     */
+    public <E extends Exception> void time(String name, TimedTask<E> task) throws E {
+        time(name, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the statistics of every operation that has been called, by name
+     */
+    public Map<String, Map<String, Object>> getStatistics() {
+        Map<String, Map<String, Object>> statistics = new TreeMap<>();
+        for (OperationMetrics metrics : operations.values()) {
+            Map<String, Object> operation = metrics.getStatistics();
+            if ((long) operation.get("count") > 0) {
+                statistics.put(metrics.getName(), operation);
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Clears the recorded calls of every operation
+     */
+    public void reset() {
+        operations.values().forEach(OperationMetrics::reset);
+    }
+
+    /**
+     * Formats the statistics as a table, one operation per line, with
+     * latencies in microseconds
+     */
+    public String formatReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-45s %10s %10s %10s %10s %10s %10s %12s%n",
+                "Operation", "Count", "Mean", "p50", "p90", "p99", "p99.9", "Max"));
+        report.append("-".repeat(123)).append(System.lineSeparator());
+        for (Map.Entry<String, Map<String, Object>> entry : getStatistics().entrySet()) {
+            Map<String, Object> operation = entry.getValue();
+            report.append(String.format("%-45s %10d %10.1f %10.1f %10.1f %10.1f %10.1f %12.1f%n",
+                    entry.getKey(), operation.get("count"), operation.get("meanMicros"),
+                    operation.get("p50Micros"), operation.get("p90Micros"), operation.get("p99Micros"),
+                    operation.get("p999Micros"), operation.get("maxMicros")));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Writes the formatted report, headed by the time it was taken, to a file
+     */
+    public void dumpToFile(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(file, "Operation metrics at " + LocalDateTime.now()
+                + " (latencies in microseconds)" + System.lineSeparator() + System.lineSeparator()
+                + formatReport());
+    }
+
+    /**
+     * Body of a timed operation that returns a value
+     */
+    @FunctionalInterface
+    public interface TimedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * Body of a timed operation that returns nothing
+     */
+    @FunctionalInterface
+    public interface TimedTask<E extends Exception> {
+        void run() throws E;
+    }
+}
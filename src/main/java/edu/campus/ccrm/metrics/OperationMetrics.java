@@ -0,0 +1,40 @@
+package edu.campus.ccrm.metrics;
+
+import java.util.Map;
+
+/**
+ * Call count and latency histogram for one named operation. Calls are
+ * recorded through {@link MetricsRegistry#time}.
+ */
+public final class OperationMetrics {
+    private final String name;
+    private final boolean enabled;
+    private final LatencyHistogram histogram;
+
+    OperationMetrics(String name, boolean enabled) {
+        this.name = name;
+        this.enabled = enabled;
+        this.histogram = new LatencyHistogram();
+    }
+
+    /**
+     * Records one call that started at the given {@link System#nanoTime()}
+     */
+    void record(long startNanos) {
+        if (enabled) {
+            histogram.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Object> getStatistics() {
+        return histogram.getStatistics();
+    }
+
+    void reset() {
+        histogram.reset();
+    }
+}
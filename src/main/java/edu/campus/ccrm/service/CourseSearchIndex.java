@@ -0,0 +1,131 @@
+package edu.campus.ccrm.service;
+
+import edu.campus.ccrm.domain.Course;
+
+import java.util.*;
+
+/**
+ * Inverted index over the course catalog for ranked full-text search.
+ * Course name, description, department and instructor are split into
+ * lowercase words; each word maps to the courses containing it and the
+ * weight of the most important field it appears in. Query words match any
+ * indexed word they are a prefix of, and a course must match every query
+ * word. Courses are ranked by the summed weight of their matches, with
+ * whole-word matches counting double.
+ */
+final class CourseSearchIndex {
+    private static final int NAME_WEIGHT = 8;
+    private static final int DEPARTMENT_WEIGHT = 4;
+    private static final int INSTRUCTOR_WEIGHT = 4;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final NavigableMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    private final Map<String, Map<String, Integer>> termsByCourse = new HashMap<>();
+
+    /**
+     * Indexes a new course or re-indexes a changed one
+     */
+    synchronized void update(Course course) {
+        String courseCode = course.getCourseCode();
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, course.getCourseName(), NAME_WEIGHT);
+        addTerms(terms, course.getDepartment(), DEPARTMENT_WEIGHT);
+        addTerms(terms, course.getInstructor(), INSTRUCTOR_WEIGHT);
+        addTerms(terms, course.getDescription(), DESCRIPTION_WEIGHT);
+
+        Map<String, Integer> previous = termsByCourse.put(courseCode, terms);
+        if (terms.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            for (String term : previous.keySet()) {
+                Map<String, Integer> courses = postings.get(term);
+                courses.remove(courseCode);
+                if (courses.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        terms.forEach((term, weight) -> postings.computeIfAbsent(term, k -> new HashMap<>()).put(courseCode, weight));
+    }
+
+    /**
+     * Removes every course from the index
+     */
+    synchronized void clear() {
+        postings.clear();
+        termsByCourse.clear();
+    }
+
+    /**
+     * Gets codes of courses matching every word of the query, best match
+     * first and by course code among equal scores. A query with no words
+     * matches every course.
+     */
+    synchronized List<String> search(String query) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            List<String> all = new ArrayList<>(termsByCourse.keySet());
+            Collections.sort(all);
+            return all;
+        }
+
+        Map<String, Integer> scores = null;
+        for (String word : words) {
+            Map<String, Integer> matches = new HashMap<>();
+            for (Map.Entry<String, Map<String, Integer>> entry : postings
+                    .subMap(word, true, word + Character.MAX_VALUE, false).entrySet()) {
+                int factor = entry.getKey().equals(word) ? 2 : 1;
+                entry.getValue().forEach((courseCode, weight) -> matches.merge(courseCode, weight * factor, Math::max));
+            }
+
+            if (scores == null) {
+                scores = matches;
+            } else {
+                scores.keySet().retainAll(matches.keySet());
+                scores.replaceAll((courseCode, score) -> score + matches.get(courseCode));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+
+        List<Map.Entry<String, Integer>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        List<String> result = new ArrayList<>(ranked.size());
+        ranked.forEach(entry -> result.add(entry.getKey()));
+        return result;
+    }
+
+    // Private helper methods
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String term : tokenize(text)) {
+            terms.merge(term, weight, Math::max);
+        }
+    }
+
+    /**
+     * Splits text into lowercase runs of letters and digits
+     */
+    private static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+
+        String lower = text.toLowerCase();
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+}
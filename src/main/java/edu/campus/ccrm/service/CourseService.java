@@ -4,20 +4,41 @@ import edu.campus.ccrm.domain.*;
 import edu.campus.ccrm.domain.enums.*;
 import edu.campus.ccrm.exception.CourseNotFoundException;
 import edu.campus.ccrm.exception.InvalidCourseException;
+import edu.campus.ccrm.metrics.MetricsRegistry;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 import java.util.function.Predicate;
 
 /**
  * Service class for managing course operations.
  * Implements business logic for course management with functional programming.
+ * Backed by a concurrent map; updates are applied atomically per course.
  */
 public class CourseService {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+
     private final Map<String, Course> courses;
+    private final CourseSearchIndex searchIndex;
+    private final List<MutationListener> listeners;
 
     public CourseService() {
-        this.courses = new HashMap<>();
+        this.courses = new ConcurrentHashMap<>();
+        this.searchIndex = new CourseSearchIndex();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Registers a listener for course changes
+     */
+    public void addMutationListener(MutationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeMutationListener(MutationListener listener) {
+        listeners.remove(listener);
     }
 
     /**
@@ -26,21 +47,53 @@ public class CourseService {
     public Course createCourse(String courseCode, String courseName, String description,
             int credits, String department, String instructor,
             Set<String> prerequisites, Map<String, String> schedule) {
+        return METRICS.time("CourseService.createCourse", () -> {
+            Course course = new Course.Builder()
+                    .courseCode(courseCode)
+                    .courseName(courseName)
+                    .description(description)
+                    .credits(credits)
+                    .department(department)
+                    .instructor(instructor)
+                    .status(CourseStatus.ACTIVE)
+                    .prerequisites(prerequisites)
+                    .courseSchedule(schedule)
+                    .build();
 
-        Course course = new Course.Builder()
-                .courseCode(courseCode)
-                .courseName(courseName)
-                .description(description)
-                .credits(credits)
-                .department(department)
-                .instructor(instructor)
-                .status(CourseStatus.ACTIVE)
-                .prerequisites(prerequisites)
-                .courseSchedule(schedule)
-                .build();
+            try {
+                courses.compute(courseCode, (code, existing) -> {
+                    searchIndex.update(course);
+                    notifyChanged(MutationListener.Operation.CREATE_COURSE, course);
+                    return course;
+                });
+            } finally {
+                notifyCompleted();
+            }
+            return course;
+        });
+    }
 
-        courses.put(courseCode, course);
-        return course;
+    /**
+     * Adds an existing course record, e.g. one loaded from a data file
+     */
+    public void addCourse(Course course) {
+        METRICS.time("CourseService.addCourse", () -> {
+            courses.compute(course.getCourseCode(), (code, existing) -> {
+                searchIndex.update(course);
+                return course;
+            });
+        });
+    }
+
+    /**
+     * Removes all courses, e.g. before loading a restored data set. Not
+     * safe against concurrent changes.
+     */
+    public void clear() {
+        METRICS.time("CourseService.clear", () -> {
+            courses.clear();
+            searchIndex.clear();
+        });
     }
 
     /**
@@ -49,151 +102,185 @@ public class CourseService {
     public Course updateCourse(String courseCode, String courseName, String description,
             int credits, String department, String instructor,
             Set<String> prerequisites, Map<String, String> schedule) {
-        Course existing = getCourseByCode(courseCode);
-
-        Course updated = new Course.Builder()
-                .courseCode(courseCode)
-                .courseName(courseName)
-                .description(description)
-                .credits(credits)
-                .department(department)
-                .instructor(instructor)
-                .status(existing.getStatus())
-                .prerequisites(prerequisites)
-                .courseSchedule(schedule)
-                .build();
+        return METRICS.time("CourseService.updateCourse", () -> {
+            Course updated;
+            try {
+                updated = courses.computeIfPresent(courseCode, (code, existing) -> {
+                    Course course = new Course.Builder()
+                            .courseCode(courseCode)
+                            .courseName(courseName)
+                            .description(description)
+                            .credits(credits)
+                            .department(department)
+                            .instructor(instructor)
+                            .status(existing.getStatus())
+                            .prerequisites(prerequisites)
+                            .courseSchedule(schedule)
+                            .build();
+                    searchIndex.update(course);
+                    notifyChanged(MutationListener.Operation.UPDATE_COURSE, course);
+                    return course;
+                });
+            } finally {
+                notifyCompleted();
+            }
 
-        courses.put(courseCode, updated);
-        return updated;
+            if (updated == null) {
+                throw new CourseNotFoundException("Course not found with code: " + courseCode);
+            }
+            return updated;
+        });
     }
 
     /**
      * Retrieves course by code
      */
     public Course getCourseByCode(String courseCode) {
-        Course course = courses.get(courseCode);
-        if (course == null) {
-            throw new CourseNotFoundException("Course not found with code: " + courseCode);
-        }
-        return course;
+        return METRICS.time("CourseService.getCourseByCode", () -> {
+            Course course = courses.get(courseCode);
+            if (course == null) {
+                throw new CourseNotFoundException("Course not found with code: " + courseCode);
+            }
+            return course;
+        });
     }
 
     /**
      * Lists all courses with optional filtering using functional programming
      */
     public List<Course> getAllCourses(Predicate<Course> filter) {
-        return courses.values().stream()
+        return METRICS.time("CourseService.getAllCourses(filter)", () -> courses.values().stream()
                 .filter(filter)
                 .sorted(Comparator.comparing(Course::getCourseCode))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
      * Lists all courses
      */
     public List<Course> getAllCourses() {
-        return getAllCourses(course -> true);
+        return METRICS.time("CourseService.getAllCourses", () -> getAllCourses(course -> true));
     }
 
     /**
-     * Searches courses by name using functional programming
+     * Searches the catalog by words or word prefixes found in course names,
+     * descriptions, departments and instructors. Results are ranked, name
+     * matches first.
      */
     public List<Course> searchCoursesByName(String name) {
-        String searchTerm = name.toLowerCase();
-        return courses.values().stream()
-                .filter(course -> course.getCourseName().toLowerCase().contains(searchTerm) ||
-                        course.getDescription().toLowerCase().contains(searchTerm))
-                .sorted(Comparator.comparing(Course::getCourseCode))
-                .collect(Collectors.toList());
+        return METRICS.time("CourseService.searchCoursesByName", () -> searchIndex.search(name).stream()
+                .map(courses::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
     }
 
     /**
      * Filters courses by department using functional programming
      */
     public List<Course> getCoursesByDepartment(String department) {
-        return getAllCourses(course -> course.getDepartment().equalsIgnoreCase(department));
+        return METRICS.time("CourseService.getCoursesByDepartment",
+                () -> getAllCourses(course -> course.getDepartment().equalsIgnoreCase(department)));
     }
 
     /**
      * Filters courses by instructor using functional programming
      */
     public List<Course> getCoursesByInstructor(String instructor) {
-        return getAllCourses(course -> course.getInstructor().equalsIgnoreCase(instructor));
+        return METRICS.time("CourseService.getCoursesByInstructor",
+                () -> getAllCourses(course -> course.getInstructor().equalsIgnoreCase(instructor)));
     }
 
     /**
      * Filters courses by credit range using functional programming
      */
     public List<Course> getCoursesByCreditRange(int minCredits, int maxCredits) {
-        return getAllCourses(course -> course.getCredits() >= minCredits && course.getCredits() <= maxCredits);
+        return METRICS.time("CourseService.getCoursesByCreditRange",
+                () -> getAllCourses(course -> course.getCredits() >= minCredits && course.getCredits() <= maxCredits));
     }
 
     /**
      * Filters courses by level using functional programming
      */
     public List<Course> getCoursesByLevel(CourseLevel level) {
-        return getAllCourses(course -> course.getCourseLevel() == level);
+        return METRICS.time("CourseService.getCoursesByLevel",
+                () -> getAllCourses(course -> course.getCourseLevel() == level));
     }
 
     /**
      * Gets available courses (active status) using functional programming
      */
     public List<Course> getAvailableCourses() {
-        return getAllCourses(Course::isAvailable);
+        return METRICS.time("CourseService.getAvailableCourses", () -> getAllCourses(Course::isAvailable));
     }
 
     /**
      * Deactivates a course (soft delete)
      */
     public void deactivateCourse(String courseCode) {
-        Course course = getCourseByCode(courseCode);
-        Course deactivated = new Course.Builder()
-                .courseCode(course.getCourseCode())
-                .courseName(course.getCourseName())
-                .description(course.getDescription())
-                .credits(course.getCredits())
-                .department(course.getDepartment())
-                .instructor(course.getInstructor())
-                .status(CourseStatus.INACTIVE)
-                .prerequisites(course.getPrerequisites())
-                .courseSchedule(course.getCourseSchedule())
-                .build();
+        METRICS.time("CourseService.deactivateCourse", () -> {
+            Course deactivated;
+            try {
+                deactivated = courses.computeIfPresent(courseCode, (code, course) -> {
+                    Course inactive = new Course.Builder()
+                            .courseCode(course.getCourseCode())
+                            .courseName(course.getCourseName())
+                            .description(course.getDescription())
+                            .credits(course.getCredits())
+                            .department(course.getDepartment())
+                            .instructor(course.getInstructor())
+                            .status(CourseStatus.INACTIVE)
+                            .prerequisites(course.getPrerequisites())
+                            .courseSchedule(course.getCourseSchedule())
+                            .build();
+                    notifyChanged(MutationListener.Operation.DEACTIVATE_COURSE, inactive);
+                    return inactive;
+                });
+            } finally {
+                notifyCompleted();
+            }
 
-        courses.put(courseCode, deactivated);
+            if (deactivated == null) {
+                throw new CourseNotFoundException("Course not found with code: " + courseCode);
+            }
+        });
     }
 
     /**
      * Gets course prerequisites using functional programming
      */
     public List<Course> getCoursePrerequisites(String courseCode) {
-        Course course = getCourseByCode(courseCode);
-        return course.getPrerequisites().stream()
-                .map(this::getCourseByCode)
-                .collect(Collectors.toList());
+        return METRICS.time("CourseService.getCoursePrerequisites", () -> {
+            Course course = getCourseByCode(courseCode);
+            return course.getPrerequisites().stream()
+                    .map(this::getCourseByCode)
+                    .collect(Collectors.toList());
+        });
     }
 
     /**
      * Checks if student meets course prerequisites
      */
     public boolean meetsPrerequisites(String courseCode, Set<String> completedCourses) {
-        Course course = getCourseByCode(courseCode);
-        return course.meetsPrerequisites(completedCourses);
+        return METRICS.time("CourseService.meetsPrerequisites", () -> {
+            Course course = getCourseByCode(courseCode);
+            return course.meetsPrerequisites(completedCourses);
+        });
     }
 
     /**
      * Gets courses that can be taken by a student (prerequisites met)
      */
     public List<Course> getEligibleCourses(Set<String> completedCourses) {
-        return getAvailableCourses().stream()
+        return METRICS.time("CourseService.getEligibleCourses", () -> getAvailableCourses().stream()
                 .filter(course -> course.meetsPrerequisites(completedCourses))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
      * Gets course statistics using functional programming
      */
     public Map<String, Object> getCourseStatistics() {
-        return Map.of(
+        return METRICS.time("CourseService.getCourseStatistics", () -> Map.of(
                 "totalCourses", courses.size(),
                 "activeCourses", getAvailableCourses().size(),
                 "coursesByDepartment", courses.values().stream()
@@ -202,7 +289,7 @@ public class CourseService {
                         .collect(Collectors.groupingBy(Course::getCourseLevel, Collectors.counting())),
                 "averageCredits", courses.values().stream()
                         .mapToInt(Course::getCredits)
-                        .average().orElse(0.0));
+                        .average().orElse(0.0)));
     }
 
     /**
@@ -210,23 +297,37 @@ public class CourseService {
      */
     public void validateCourseData(String courseCode, String courseName, int credits,
             String department, String instructor) {
-        if (courseCode == null || courseCode.trim().isEmpty()) {
-            throw new InvalidCourseException("Course code is required");
-        }
-        if (courseName == null || courseName.trim().isEmpty()) {
-            throw new InvalidCourseException("Course name is required");
-        }
-        if (credits <= 0 || credits > 6) {
-            throw new InvalidCourseException("Credits must be between 1 and 6");
-        }
-        if (department == null || department.trim().isEmpty()) {
-            throw new InvalidCourseException("Department is required");
-        }
-        if (instructor == null || instructor.trim().isEmpty()) {
-            throw new InvalidCourseException("Instructor is required");
+        METRICS.time("CourseService.validateCourseData", () -> {
+            if (courseCode == null || courseCode.trim().isEmpty()) {
+                throw new InvalidCourseException("Course code is required");
+            }
+            if (courseName == null || courseName.trim().isEmpty()) {
+                throw new InvalidCourseException("Course name is required");
+            }
+            if (credits <= 0 || credits > 6) {
+                throw new InvalidCourseException("Credits must be between 1 and 6");
+            }
+            if (department == null || department.trim().isEmpty()) {
+                throw new InvalidCourseException("Department is required");
+            }
+            if (instructor == null || instructor.trim().isEmpty()) {
+                throw new InvalidCourseException("Instructor is required");
+            }
+            if (courses.containsKey(courseCode)) {
+                throw new InvalidCourseException("Course code already exists: " + courseCode);
+            }
+        });
+    }
+
+    private void notifyChanged(MutationListener.Operation operation, Course course) {
+        for (MutationListener listener : listeners) {
+            listener.courseChanged(operation, course);
         }
-        if (courses.containsKey(courseCode)) {
-            throw new InvalidCourseException("Course code already exists: " + courseCode);
+    }
+
+    private void notifyCompleted() {
+        for (MutationListener listener : listeners) {
+            listener.mutationCompleted();
         }
     }
 }
@@ -5,202 +5,309 @@ import edu.campus.ccrm.domain.enums.*;
 import edu.campus.ccrm.exception.EnrollmentNotFoundException;
 import edu.campus.ccrm.exception.InvalidEnrollmentException;
 import edu.campus.ccrm.exception.InvalidGradeException;
+import edu.campus.ccrm.metrics.MetricsRegistry;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.function.Predicate;
 
 /**
  * Service class for managing enrollment operations.
  * Implements business logic for enrollment management with functional
- * programming.
+ * programming. Safe for concurrent use: enrollment changes are serialized
+ * per student, so different students can be enrolled in parallel.
  */
 public class EnrollmentService {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+
     private final Map<String, Enrollment> enrollments;
+    private final Map<String, Set<String>> enrollmentIdsByStudent;
+    private final Map<String, Set<String>> enrollmentIdsByCourse;
+    private final Map<Semester, Set<String>> enrollmentIdsBySemester;
+    private final Map<String, Map<Semester, SemesterLedger>> semesterLedgers;
+    private final ViewCache<String, List<Enrollment>> rosterCache;
+    private final ViewCache<String, Map<Semester, Double>> semesterGpaCache;
+    private final List<MutationListener> listeners;
     private final StudentService studentService;
     private final CourseService courseService;
 
     public EnrollmentService(StudentService studentService, CourseService courseService) {
-        this.enrollments = new HashMap<>();
+        this.enrollments = new ConcurrentHashMap<>();
+        this.enrollmentIdsByStudent = new ConcurrentHashMap<>();
+        this.enrollmentIdsByCourse = new ConcurrentHashMap<>();
+        this.enrollmentIdsBySemester = new ConcurrentHashMap<>();
+        this.semesterLedgers = new ConcurrentHashMap<>();
+        this.rosterCache = new ViewCache<>();
+        this.semesterGpaCache = new ViewCache<>();
+        this.listeners = new CopyOnWriteArrayList<>();
         this.studentService = studentService;
         this.courseService = courseService;
     }
 
     /**
-     * Enrolls a student in a course
+     * Registers a listener for enrollment changes
      */
-    public Enrollment enrollStudent(Student student, String courseCode, Semester semester) {
-        Course course = courseService.getCourseByCode(courseCode);
-
-        // Validate enrollment eligibility
-        validateEnrollment(student, course, semester);
-
-        String enrollmentId = generateEnrollmentId(student.getStudentId(), courseCode, semester);
+    public void addMutationListener(MutationListener listener) {
+        listeners.add(listener);
+    }
 
-        Enrollment enrollment = new Enrollment.Builder()
-                .enrollmentId(enrollmentId)
-                .student(student)
-                .course(course)
-                .semester(semester)
-                .enrollmentDate(LocalDate.now())
-                .status(EnrollmentStatus.ACTIVE)
-                .build();
+    public void removeMutationListener(MutationListener listener) {
+        listeners.remove(listener);
+    }
 
-        enrollments.put(enrollmentId, enrollment);
+    /**
+     * Enrolls a student in a course
+     */
+    public Enrollment enrollStudent(Student student, String courseCode, Semester semester) {
+        return METRICS.time("EnrollmentService.enrollStudent", () -> {
+            Course course = courseService.getCourseByCode(courseCode);
+            Map<Semester, SemesterLedger> ledgers = ledgersFor(student.getStudentId());
+            Enrollment enrollment;
+
+            try {
+                synchronized (ledgers) {
+                    // Validate enrollment eligibility
+                    validateEnrollment(student, course, semester, ledgers);
+
+                    String enrollmentId = generateEnrollmentId(student.getStudentId(), courseCode, semester);
+
+                    enrollment = new Enrollment.Builder()
+                            .enrollmentId(enrollmentId)
+                            .student(student)
+                            .course(course)
+                            .semester(semester)
+                            .enrollmentDate(LocalDate.now())
+                            .status(EnrollmentStatus.ACTIVE)
+                            .build();
+
+                    Enrollment previous = enrollments.put(enrollmentId, enrollment);
+                    indexEnrollment(enrollment);
+                    updateLedger(ledgers, previous, enrollment);
+
+                    invalidateViews(enrollment);
+
+                    // Update student's enrollments
+                    updateStudentEnrollments(enrollment);
+                    notifyChanged(MutationListener.Operation.ENROLL_STUDENT, enrollment);
+                }
+            } finally {
+                notifyCompleted();
+            }
+            return enrollment;
+        });
+    }
 
-        // Update student's enrollments
-        updateStudentEnrollments(student, enrollment);
+    /**
+     * Adds a previously persisted enrollment without eligibility checks.
+     * The student record is not touched; call
+     * {@link StudentService#attachEnrollments} once the bulk load is done.
+     */
+    public void loadEnrollment(Enrollment enrollment) {
+        METRICS.time("EnrollmentService.loadEnrollment", () -> {
+            Map<Semester, SemesterLedger> ledgers = ledgersFor(enrollment.getStudent().getStudentId());
+
+            synchronized (ledgers) {
+                Enrollment previous = enrollments.put(enrollment.getEnrollmentId(), enrollment);
+                indexEnrollment(enrollment);
+                updateLedger(ledgers, previous, enrollment);
+                invalidateViews(enrollment);
+            }
+        });
+    }
 
-        return enrollment;
+    /**
+     * Removes all enrollments and their indexes, e.g. before loading a
+     * restored data set. Not safe against concurrent changes.
+     */
+    public void clear() {
+        METRICS.time("EnrollmentService.clear", () -> {
+            enrollments.clear();
+            enrollmentIdsByStudent.clear();
+            enrollmentIdsByCourse.clear();
+            enrollmentIdsBySemester.clear();
+            semesterLedgers.clear();
+            rosterCache.invalidateAll();
+            semesterGpaCache.invalidateAll();
+        });
     }
 
     /**
      * Records a grade for an enrollment
      */
     public void recordGrade(String enrollmentId, Grade grade, String notes) {
-        Enrollment enrollment = getEnrollmentById(enrollmentId);
-
-        if (!enrollment.isActive()) {
-            throw new InvalidEnrollmentException("Cannot record grade for inactive enrollment");
-        }
-
-        Enrollment updated = new Enrollment.Builder()
-                .enrollmentId(enrollment.getEnrollmentId())
-                .student(enrollment.getStudent())
-                .course(enrollment.getCourse())
-                .semester(enrollment.getSemester())
-                .enrollmentDate(enrollment.getEnrollmentDate())
-                .grade(grade)
-                .notes(notes)
-                .status(grade == Grade.INCOMPLETE ? EnrollmentStatus.INCOMPLETE : EnrollmentStatus.COMPLETED)
-                .build();
-
-        enrollments.put(enrollmentId, updated);
-
-        // Update student's enrollments
-        updateStudentEnrollments(enrollment.getStudent(), updated);
+        METRICS.time("EnrollmentService.recordGrade", () -> {
+            Map<Semester, SemesterLedger> ledgers = ledgersFor(
+                    getEnrollmentById(enrollmentId).getStudent().getStudentId());
+
+            try {
+                synchronized (ledgers) {
+                    Enrollment enrollment = getEnrollmentById(enrollmentId);
+
+                    if (!enrollment.isActive()) {
+                        throw new InvalidEnrollmentException("Cannot record grade for inactive enrollment");
+                    }
+
+                    Enrollment updated = new Enrollment.Builder()
+                            .enrollmentId(enrollment.getEnrollmentId())
+                            .student(enrollment.getStudent())
+                            .course(enrollment.getCourse())
+                            .semester(enrollment.getSemester())
+                            .enrollmentDate(enrollment.getEnrollmentDate())
+                            .grade(grade)
+                            .notes(notes)
+                            .status(grade == Grade.INCOMPLETE ? EnrollmentStatus.INCOMPLETE
+                                    : EnrollmentStatus.COMPLETED)
+                            .build();
+
+                    enrollments.put(enrollmentId, updated);
+                    updateLedger(ledgers, enrollment, updated);
+                    invalidateViews(updated);
+
+                    // Update student's enrollments
+                    updateStudentEnrollments(updated);
+                    notifyChanged(MutationListener.Operation.RECORD_GRADE, updated);
+                }
+            } finally {
+                notifyCompleted();
+            }
+        });
     }
 
     /**
      * Withdraws a student from a course
      */
     public void withdrawFromCourse(String enrollmentId, String reason) {
-        Enrollment enrollment = getEnrollmentById(enrollmentId);
-
-        if (!enrollment.isActive()) {
-            throw new InvalidEnrollmentException("Cannot withdraw from inactive enrollment");
-        }
-
-        Enrollment withdrawn = new Enrollment.Builder()
-                .enrollmentId(enrollment.getEnrollmentId())
-                .student(enrollment.getStudent())
-                .course(enrollment.getCourse())
-                .semester(enrollment.getSemester())
-                .enrollmentDate(enrollment.getEnrollmentDate())
-                .grade(Grade.WITHDRAWAL)
-                .notes(reason)
-                .status(EnrollmentStatus.WITHDRAWN)
-                .build();
-
-        enrollments.put(enrollmentId, withdrawn);
-
-        // Update student's enrollments
-        updateStudentEnrollments(enrollment.getStudent(), withdrawn);
+        METRICS.time("EnrollmentService.withdrawFromCourse", () -> {
+            Map<Semester, SemesterLedger> ledgers = ledgersFor(
+                    getEnrollmentById(enrollmentId).getStudent().getStudentId());
+
+            try {
+                synchronized (ledgers) {
+                    Enrollment enrollment = getEnrollmentById(enrollmentId);
+
+                    if (!enrollment.isActive()) {
+                        throw new InvalidEnrollmentException("Cannot withdraw from inactive enrollment");
+                    }
+
+                    Enrollment withdrawn = new Enrollment.Builder()
+                            .enrollmentId(enrollment.getEnrollmentId())
+                            .student(enrollment.getStudent())
+                            .course(enrollment.getCourse())
+                            .semester(enrollment.getSemester())
+                            .enrollmentDate(enrollment.getEnrollmentDate())
+                            .grade(Grade.WITHDRAWAL)
+                            .notes(reason)
+                            .status(EnrollmentStatus.WITHDRAWN)
+                            .build();
+
+                    enrollments.put(enrollmentId, withdrawn);
+                    updateLedger(ledgers, enrollment, withdrawn);
+                    invalidateViews(withdrawn);
+
+                    // Update student's enrollments
+                    updateStudentEnrollments(withdrawn);
+                    notifyChanged(MutationListener.Operation.WITHDRAW_FROM_COURSE, withdrawn);
+                }
+            } finally {
+                notifyCompleted();
+            }
+        });
     }
 
     /**
      * Retrieves enrollment by ID
      */
     public Enrollment getEnrollmentById(String enrollmentId) {
-        Enrollment enrollment = enrollments.get(enrollmentId);
-        if (enrollment == null) {
-            throw new EnrollmentNotFoundException("Enrollment not found with ID: " + enrollmentId);
-        }
-        return enrollment;
+        return METRICS.time("EnrollmentService.getEnrollmentById", () -> {
+            Enrollment enrollment = enrollments.get(enrollmentId);
+            if (enrollment == null) {
+                throw new EnrollmentNotFoundException("Enrollment not found with ID: " + enrollmentId);
+            }
+            return enrollment;
+        });
     }
 
     /**
      * Gets all enrollments for a student using functional programming
      */
     public List<Enrollment> getEnrollmentsByStudent(String studentId) {
-        return enrollments.values().stream()
-                .filter(enrollment -> enrollment.getStudent().getStudentId().equals(studentId))
-                .sorted(Comparator.comparing(Enrollment::getSemester)
-                        .thenComparing(e -> e.getCourse().getCourseCode()))
-                .collect(Collectors.toList());
+        return METRICS.time("EnrollmentService.getEnrollmentsByStudent",
+                () -> lookup(enrollmentIdsByStudent, studentId)
+                        .sorted(Comparator.comparing(Enrollment::getSemester)
+                                .thenComparing(e -> e.getCourse().getCourseCode()))
+                        .collect(Collectors.toList()));
     }
 
     /**
-     * Gets all enrollments for a course using functional programming
+     * Gets the roster of a course, served from the roster cache when no
+     * enrollment in the course has changed since it was last built. The
+     * returned list is unmodifiable.
      */
     public List<Enrollment> getEnrollmentsByCourse(String courseCode) {
-        return enrollments.values().stream()
-                .filter(enrollment -> enrollment.getCourse().getCourseCode().equals(courseCode))
-                .sorted(Comparator.comparing(Enrollment::getSemester)
-                        .thenComparing(e -> e.getStudent().getLastName()))
-                .collect(Collectors.toList());
+        return METRICS.time("EnrollmentService.getEnrollmentsByCourse",
+                () -> rosterCache.get(courseCode, code -> Collections.unmodifiableList(
+                        lookup(enrollmentIdsByCourse, code)
+                                .sorted(Comparator.comparing(Enrollment::getSemester)
+                                        .thenComparing(e -> e.getStudent().getLastName()))
+                                .collect(Collectors.toList()))));
     }
 
     /**
      * Gets enrollments by semester using functional programming
      */
     public List<Enrollment> getEnrollmentsBySemester(Semester semester) {
-        return enrollments.values().stream()
-                .filter(enrollment -> enrollment.getSemester().equals(semester))
-                .sorted(Comparator.comparing(e -> e.getStudent().getLastName()))
-                .collect(Collectors.toList());
+        return METRICS.time("EnrollmentService.getEnrollmentsBySemester",
+                () -> lookup(enrollmentIdsBySemester, semester)
+                        .sorted(Comparator.comparing(e -> e.getStudent().getLastName()))
+                        .collect(Collectors.toList()));
     }
 
     /**
      * Gets active enrollments using functional programming
      */
     public List<Enrollment> getActiveEnrollments() {
-        return enrollments.values().stream()
+        return METRICS.time("EnrollmentService.getActiveEnrollments", () -> enrollments.values().stream()
                 .filter(Enrollment::isActive)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
      * Gets completed enrollments using functional programming
      */
     public List<Enrollment> getCompletedEnrollments() {
-        return enrollments.values().stream()
+        return METRICS.time("EnrollmentService.getCompletedEnrollments", () -> enrollments.values().stream()
                 .filter(Enrollment::isCompleted)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
-     * Calculates GPA for a student in a specific semester using functional
-     * programming
+     * Calculates GPA for a student in a specific semester. The GPAs of all
+     * of a student's semesters are computed together and cached until one
+     * of their enrollments changes.
      */
     public double calculateSemesterGPA(String studentId, Semester semester) {
-        List<Enrollment> semesterEnrollments = enrollments.values().stream()
-                .filter(e -> e.getStudent().getStudentId().equals(studentId))
-                .filter(e -> e.getSemester().equals(semester))
-                .filter(e -> e.getGrade() != null && e.getGrade().countsTowardsGPA())
-                .collect(Collectors.toList());
-
-        if (semesterEnrollments.isEmpty()) {
-            return 0.0;
-        }
-
-        double totalQualityPoints = semesterEnrollments.stream()
-                .mapToDouble(Enrollment::getQualityPoints)
-                .sum();
-
-        int totalCredits = semesterEnrollments.stream()
-                .mapToInt(e -> e.getCourse().getCredits())
-                .sum();
+        return METRICS.time("EnrollmentService.calculateSemesterGPA",
+                () -> semesterGpaCache.get(studentId, this::computeSemesterGPAs).getOrDefault(semester, 0.0));
+    }
 
-        return totalCredits > 0 ? totalQualityPoints / totalCredits : 0.0;
+    /**
+     * Gets roster and semester GPA cache hit, miss and eviction counts
+     */
+    public Map<String, Object> getCacheStatistics() {
+        return Map.of(
+                "rosters", rosterCache.getStatistics(),
+                "semesterGPAs", semesterGpaCache.getStatistics());
     }
 
     /**
      * Gets enrollment statistics using functional programming
      */
     public Map<String, Object> getEnrollmentStatistics() {
-        return Map.of(
+        return METRICS.time("EnrollmentService.getEnrollmentStatistics", () -> Map.of(
                 "totalEnrollments", enrollments.size(),
                 "activeEnrollments", getActiveEnrollments().size(),
                 "completedEnrollments", getCompletedEnrollments().size(),
@@ -211,13 +318,14 @@ public class EnrollmentService {
                 "averageGrade", enrollments.values().stream()
                         .filter(e -> e.getGrade() != null && e.getGrade().countsTowardsGPA())
                         .mapToDouble(e -> e.getGrade().getNumericValue())
-                        .average().orElse(0.0));
+                        .average().orElse(0.0)));
     }
 
     /**
      * Validates enrollment eligibility
      */
-    private void validateEnrollment(Student student, Course course, Semester semester) {
+    private void validateEnrollment(Student student, Course course, Semester semester,
+            Map<Semester, SemesterLedger> ledgers) {
         if (!student.getStatus().canEnroll()) {
             throw new InvalidEnrollmentException("Student cannot enroll: " + student.getStatus());
         }
@@ -226,24 +334,15 @@ public class EnrollmentService {
             throw new InvalidEnrollmentException("Course is not available: " + course.getStatus());
         }
 
-        // Check if already enrolled in this course for this semester
-        boolean alreadyEnrolled = enrollments.values().stream()
-                .anyMatch(e -> e.getStudent().equals(student) &&
-                        e.getCourse().equals(course) &&
-                        e.getSemester().equals(semester) &&
-                        e.isActive());
+        SemesterLedger ledger = ledgers.get(semester);
 
-        if (alreadyEnrolled) {
+        // Check if already enrolled in this course for this semester
+        if (ledger != null && ledger.courseCodes.contains(course.getCourseCode())) {
             throw new InvalidEnrollmentException("Student already enrolled in this course for this semester");
         }
 
         // Check credit limit
-        int currentSemesterCredits = enrollments.values().stream()
-                .filter(e -> e.getStudent().equals(student))
-                .filter(e -> e.getSemester().equals(semester))
-                .filter(Enrollment::isActive)
-                .mapToInt(e -> e.getCourse().getCredits())
-                .sum();
+        int currentSemesterCredits = ledger != null ? ledger.activeCredits : 0;
 
         if (currentSemesterCredits + course.getCredits() > 21) {
             throw new InvalidEnrollmentException("Credit limit exceeded for semester");
@@ -259,6 +358,87 @@ public class EnrollmentService {
         }
     }
 
+    /**
+     * Adds an enrollment to the student, course and semester indexes.
+     * Grade and withdrawal updates keep the same ID and keys, so only new
+     * enrollments need indexing; lookups always resolve the latest version.
+     */
+    private void indexEnrollment(Enrollment enrollment) {
+        String enrollmentId = enrollment.getEnrollmentId();
+        enrollmentIdsByStudent.computeIfAbsent(enrollment.getStudent().getStudentId(),
+                k -> ConcurrentHashMap.newKeySet()).add(enrollmentId);
+        enrollmentIdsByCourse.computeIfAbsent(enrollment.getCourse().getCourseCode(),
+                k -> ConcurrentHashMap.newKeySet()).add(enrollmentId);
+        enrollmentIdsBySemester.computeIfAbsent(enrollment.getSemester(),
+                k -> ConcurrentHashMap.newKeySet()).add(enrollmentId);
+    }
+
+    /**
+     * Gets the semester ledgers of a student. The returned map is also the
+     * lock that serializes enrollment changes for that student.
+     */
+    private Map<Semester, SemesterLedger> ledgersFor(String studentId) {
+        return semesterLedgers.computeIfAbsent(studentId, k -> new HashMap<>());
+    }
+
+    /**
+     * Moves an enrollment's credits in or out of its (student, semester)
+     * ledger when it becomes active or stops being active. Callers hold the
+     * student's ledger lock.
+     */
+    private void updateLedger(Map<Semester, SemesterLedger> ledgers, Enrollment previous, Enrollment current) {
+        if (previous != null && previous.isActive()) {
+            SemesterLedger ledger = ledgers.get(previous.getSemester());
+            if (ledger != null) {
+                ledger.release(previous.getCourse());
+                if (ledger.courseCodes.isEmpty()) {
+                    ledgers.remove(previous.getSemester());
+                }
+            }
+        }
+        if (current.isActive()) {
+            ledgers.computeIfAbsent(current.getSemester(), k -> new SemesterLedger())
+                    .reserve(current.getCourse());
+        }
+    }
+
+    /**
+     * Credit-weighted GPA of each semester in which a student has graded
+     * enrollments
+     */
+    private Map<Semester, Double> computeSemesterGPAs(String studentId) {
+        Map<Semester, double[]> totals = new HashMap<>();
+        lookup(enrollmentIdsByStudent, studentId)
+                .filter(e -> e.getGrade() != null && e.getGrade().countsTowardsGPA())
+                .forEach(e -> {
+                    double[] semesterTotals = totals.computeIfAbsent(e.getSemester(), k -> new double[2]);
+                    semesterTotals[0] += e.getQualityPoints();
+                    semesterTotals[1] += e.getCourse().getCredits();
+                });
+
+        Map<Semester, Double> gpas = new HashMap<>();
+        totals.forEach((semester, semesterTotals) ->
+                gpas.put(semester, semesterTotals[1] > 0 ? semesterTotals[0] / semesterTotals[1] : 0.0));
+        return gpas;
+    }
+
+    /**
+     * Drops the cached roster and semester GPAs an enrollment change affects
+     */
+    private void invalidateViews(Enrollment enrollment) {
+        rosterCache.invalidate(enrollment.getCourse().getCourseCode());
+        semesterGpaCache.invalidate(enrollment.getStudent().getStudentId());
+    }
+
+    /**
+     * Resolves the enrollments stored under an index key
+     */
+    private <K> Stream<Enrollment> lookup(Map<K, Set<String>> index, K key) {
+        return index.getOrDefault(key, Collections.emptySet()).stream()
+                .map(enrollments::get)
+                .filter(Objects::nonNull);
+    }
+
     /**
      * Generates unique enrollment ID
      */
@@ -270,32 +450,60 @@ public class EnrollmentService {
     /**
      * Updates student's enrollments (helper method)
      */
-    private void updateStudentEnrollments(Student student, Enrollment enrollment) {
-        Set<Enrollment> updatedEnrollments = student.getEnrollments().stream()
-                .filter(e -> !e.getEnrollmentId().equals(enrollment.getEnrollmentId()))
-                .collect(Collectors.toSet());
-        updatedEnrollments.add(enrollment);
+    private void updateStudentEnrollments(Enrollment enrollment) {
+        if (studentService != null) {
+            studentService.applyEnrollment(enrollment);
+        }
+    }
+
+    private void notifyChanged(MutationListener.Operation operation, Enrollment enrollment) {
+        for (MutationListener listener : listeners) {
+            listener.enrollmentChanged(operation, enrollment);
+        }
+    }
 
-        // This would require updating the student object, which is handled by the
-        // service layer
+    private void notifyCompleted() {
+        for (MutationListener listener : listeners) {
+            listener.mutationCompleted();
+        }
     }
 
     /**
      * Gets all enrollments with optional filtering
      */
     public List<Enrollment> getAllEnrollments(Predicate<Enrollment> filter) {
-        return enrollments.values().stream()
+        return METRICS.time("EnrollmentService.getAllEnrollments(filter)", () -> enrollments.values().stream()
                 .filter(filter)
                 .sorted(Comparator.comparing(Enrollment::getSemester)
                         .thenComparing(e -> e.getStudent().getLastName())
                         .thenComparing(e -> e.getCourse().getCourseCode()))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
      * Gets all enrollments
      */
     public List<Enrollment> getAllEnrollments() {
-        return getAllEnrollments(enrollment -> true);
+        return METRICS.time("EnrollmentService.getAllEnrollments", () -> getAllEnrollments(enrollment -> true));
+    }
+
+    /**
+     * Active credits and course codes a student holds in one semester
+     */
+    private static final class SemesterLedger {
+        private final Set<String> courseCodes = new HashSet<>();
+        private int activeCredits;
+
+        void reserve(Course course) {
+            if (courseCodes.add(course.getCourseCode())) {
+                activeCredits += course.getCredits();
+            }
+        }
+
+        void release(Course course) {
+            if (courseCodes.remove(course.getCourseCode())) {
+                activeCredits -= course.getCredits();
+            }
+        }
     }
 }
@@ -0,0 +1,94 @@
+package edu.campus.ccrm.service;
+
+import edu.campus.ccrm.domain.Student;
+import edu.campus.ccrm.domain.enums.Semester;
+
+import java.util.*;
+
+/**
+ * Sorted index from current-semester GPA to student IDs.
+ * Serves GPA range and top-N queries in logarithmic time plus the size of
+ * the result. The index remembers the semester its GPAs were computed for
+ * so the owner can rebuild it when the calendar rolls over.
+ */
+final class GpaIndex {
+    private final NavigableMap<Double, Set<String>> studentIdsByGpa = new TreeMap<>();
+    private final Map<String, Double> gpaByStudent = new HashMap<>();
+    private Semester semester;
+
+    GpaIndex(Semester semester) {
+        this.semester = semester;
+    }
+
+    /**
+     * Inserts or repositions a student at their current GPA
+     */
+    synchronized void update(Student student) {
+        String studentId = student.getStudentId();
+        double gpa = student.calculateCurrentGPA();
+        Double previous = gpaByStudent.put(studentId, gpa);
+
+        if (previous != null) {
+            if (previous == gpa) {
+                return;
+            }
+            detach(previous, studentId);
+        }
+        studentIdsByGpa.computeIfAbsent(gpa, k -> new HashSet<>()).add(studentId);
+    }
+
+    /**
+     * Gets IDs of students whose GPA lies in the inclusive range
+     */
+    synchronized List<String> range(double minGPA, double maxGPA) {
+        if (minGPA > maxGPA) {
+            return new ArrayList<>();
+        }
+        List<String> result = new ArrayList<>();
+        studentIdsByGpa.subMap(minGPA, true, maxGPA, true).values().forEach(result::addAll);
+        return result;
+    }
+
+    /**
+     * Gets IDs of the highest-GPA students, best first
+     */
+    synchronized List<String> top(int limit) {
+        List<String> result = new ArrayList<>(Math.max(limit, 0));
+        for (Set<String> ids : studentIdsByGpa.descendingMap().values()) {
+            for (String id : ids) {
+                if (result.size() >= limit) {
+                    return result;
+                }
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the GPAs were computed for a different semester
+     */
+    synchronized boolean isStale(Semester current) {
+        return !semester.equals(current);
+    }
+
+    /**
+     * Recomputes every entry for a new semester
+     */
+    synchronized void rebuild(Collection<Student> students, Semester current) {
+        studentIdsByGpa.clear();
+        gpaByStudent.clear();
+        semester = current;
+        students.forEach(this::update);
+    }
+
+    private void detach(double gpa, String studentId) {
+        Set<String> ids = studentIdsByGpa.get(gpa);
+        if (ids != null) {
+            ids.remove(studentId);
+            if (ids.isEmpty()) {
+                studentIdsByGpa.remove(gpa);
+            }
+        }
+    }
+}
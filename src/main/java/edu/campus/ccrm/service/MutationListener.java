@@ -0,0 +1,44 @@
+package edu.campus.ccrm.service;
+
+import edu.campus.ccrm.domain.*;
+
+/**
+ * Observer for changes made through the service layer.
+ *
+ * <p>
+ * The change callbacks receive the new state of the record and run on the
+ * mutating thread while that record is still locked, so changes to the
+ * same record are seen in the order they were applied; they should return
+ * quickly. {@link #mutationCompleted()} runs on the same thread after the
+ * locks are released, whether or not the operation succeeded; a listener
+ * may block there, e.g. to wait for a journal write to become durable.
+ */
+public interface MutationListener {
+
+    /**
+     * The service operation that produced a change
+     */
+    enum Operation {
+        CREATE_STUDENT,
+        UPDATE_STUDENT,
+        DEACTIVATE_STUDENT,
+        CREATE_COURSE,
+        UPDATE_COURSE,
+        DEACTIVATE_COURSE,
+        ENROLL_STUDENT,
+        RECORD_GRADE,
+        WITHDRAW_FROM_COURSE
+    }
+
+    default void studentChanged(Operation operation, Student student) {
+    }
+
+    default void courseChanged(Operation operation, Course course) {
+    }
+
+    default void enrollmentChanged(Operation operation, Enrollment enrollment) {
+    }
+
+    default void mutationCompleted() {
+    }
+}
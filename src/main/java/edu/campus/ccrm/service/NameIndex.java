@@ -0,0 +1,202 @@
+package edu.campus.ccrm.service;
+
+import edu.campus.ccrm.domain.Student;
+
+import java.util.*;
+
+/**
+ * N-gram index over student names for substring search.
+ * Each student's lowercased "first last" name is broken into every
+ * substring of one to three characters, each mapped to a sorted list of
+ * student slots. A search term of up to three characters is answered by a
+ * single posting list; a longer one intersects the lists of its trigrams,
+ * rarest first, and only the surviving candidates are checked with
+ * {@link String#contains}.
+ */
+final class NameIndex {
+    private static final int MAX_GRAM = 3;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final List<String> idBySlot = new ArrayList<>();
+    private final List<String> nameBySlot = new ArrayList<>();
+
+    /**
+     * Indexes a new student or re-indexes one whose name may have changed
+     */
+    synchronized void update(Student student) {
+        String name = normalize(student);
+        Integer existing = slotById.get(student.getStudentId());
+        int slot;
+
+        if (existing == null) {
+            slot = idBySlot.size();
+            slotById.put(student.getStudentId(), slot);
+            idBySlot.add(student.getStudentId());
+            nameBySlot.add(name);
+        } else {
+            slot = existing;
+            String previous = nameBySlot.get(slot);
+            if (previous.equals(name)) {
+                return;
+            }
+            forEachGram(previous, key -> removePosting(key, slot));
+            nameBySlot.set(slot, name);
+        }
+
+        forEachGram(name, key -> postings.computeIfAbsent(key, k -> new Postings()).add(slot));
+    }
+
+    /**
+     * Removes every student from the index
+     */
+    synchronized void clear() {
+        postings.clear();
+        slotById.clear();
+        idBySlot.clear();
+        nameBySlot.clear();
+    }
+
+    /**
+     * Gets IDs of students whose first name, last name or full name
+     * contains the term, ignoring case
+     */
+    synchronized List<String> search(String term) {
+        String needle = term.toLowerCase();
+        List<String> result = new ArrayList<>();
+
+        if (needle.isEmpty()) {
+            result.addAll(idBySlot);
+            return result;
+        }
+
+        if (needle.length() <= MAX_GRAM) {
+            Postings exact = postings.get(key(needle, 0, needle.length()));
+            if (exact != null) {
+                for (int i = 0; i < exact.size; i++) {
+                    result.add(idBySlot.get(exact.slots[i]));
+                }
+            }
+            return result;
+        }
+
+        // Intersect the trigram lists, smallest first, so candidates only shrink
+        List<Postings> lists = new ArrayList<>();
+        for (int start = 0; start + MAX_GRAM <= needle.length(); start++) {
+            Postings list = postings.get(key(needle, start, MAX_GRAM));
+            if (list == null) {
+                return result;
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        int[] candidates = Arrays.copyOf(lists.get(0).slots, lists.get(0).size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = lists.get(i).retain(candidates, count);
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (nameBySlot.get(candidates[i]).contains(needle)) {
+                result.add(idBySlot.get(candidates[i]));
+            }
+        }
+        return result;
+    }
+
+    // Private helper methods
+
+    private interface GramConsumer {
+        void accept(long key);
+    }
+
+    /**
+     * Visits each distinct gram of a name once
+     */
+    private static void forEachGram(String name, GramConsumer consumer) {
+        Set<Long> seen = new HashSet<>();
+        for (int length = 1; length <= MAX_GRAM; length++) {
+            for (int start = 0; start + length <= name.length(); start++) {
+                long key = key(name, start, length);
+                if (seen.add(key)) {
+                    consumer.accept(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs up to three characters and the gram length into one key
+     */
+    private static long key(String text, int start, int length) {
+        long key = length;
+        for (int i = 0; i < length; i++) {
+            key = (key << 16) | text.charAt(start + i);
+        }
+        return key;
+    }
+
+    private void removePosting(long key, int slot) {
+        Postings list = postings.get(key);
+        if (list != null && list.remove(slot) && list.size == 0) {
+            postings.remove(key);
+        }
+    }
+
+    private static String normalize(Student student) {
+        return (student.getFirstName() + " " + student.getLastName()).toLowerCase();
+    }
+
+    /**
+     * Sorted, growable list of student slots
+     */
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            int at = Arrays.binarySearch(slots, 0, size, slot);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, at, slots, at + 1, size - at);
+            slots[at] = slot;
+            size++;
+        }
+
+        boolean remove(int slot) {
+            int at = Arrays.binarySearch(slots, 0, size, slot);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(slots, at + 1, slots, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Keeps only the candidates also in this list, in place
+         *
+         * @return the number of candidates kept
+         */
+        int retain(int[] candidates, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count; i++) {
+                int at = Arrays.binarySearch(slots, from, size, candidates[i]);
+                if (at >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = at + 1;
+                } else {
+                    from = -at - 1;
+                }
+            }
+            return kept;
+        }
+    }
+}
@@ -4,21 +4,56 @@ import edu.campus.ccrm.domain.*;
 import edu.campus.ccrm.domain.enums.*;
 import edu.campus.ccrm.exception.StudentNotFoundException;
 import edu.campus.ccrm.exception.InvalidEnrollmentException;
+import edu.campus.ccrm.metrics.MetricsRegistry;
+import edu.campus.ccrm.util.TranscriptWriter;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 import java.util.function.Predicate;
 
 /**
  * Service class for managing student operations.
  * Implements business logic for student management with functional programming.
+ * Backed by a concurrent map; updates are applied atomically per student.
  */
 public class StudentService {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+
     private final Map<String, Student> students;
-    private final EnrollmentService enrollmentService;
+    private final GpaIndex gpaIndex;
+    private final NameIndex nameIndex;
+    private final ViewCache<String, String> transcriptCache;
+    private final List<MutationListener> listeners;
+    private EnrollmentService enrollmentService;
+    private volatile Semester transcriptSemester;
 
     public StudentService(EnrollmentService enrollmentService) {
-        this.students = new HashMap<>();
+        this.students = new ConcurrentHashMap<>();
+        this.gpaIndex = new GpaIndex(Semester.current());
+        this.nameIndex = new NameIndex();
+        this.transcriptCache = new ViewCache<>();
+        this.transcriptSemester = Semester.current();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.enrollmentService = enrollmentService;
+    }
+
+    /**
+     * Registers a listener for student changes
+     */
+    public void addMutationListener(MutationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeMutationListener(MutationListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Links the enrollment service when it is constructed after this service
+     */
+    public void setEnrollmentService(EnrollmentService enrollmentService) {
         this.enrollmentService = enrollmentService;
     }
 
@@ -28,21 +63,59 @@ public class StudentService {
     public Student createStudent(String studentId, String firstName, String lastName,
             String email, String phoneNumber, String address,
             java.time.LocalDate dateOfBirth, java.time.LocalDate enrollmentDate) {
+        return METRICS.time("StudentService.createStudent", () -> {
+            Student student = new Student.Builder()
+                    .studentId(studentId)
+                    .firstName(firstName)
+                    .lastName(lastName)
+                    .email(email)
+                    .phoneNumber(phoneNumber)
+                    .address(address)
+                    .dateOfBirth(dateOfBirth)
+                    .enrollmentDate(enrollmentDate)
+                    .status(StudentStatus.ACTIVE)
+                    .build();
+
+            try {
+                students.compute(studentId, (id, existing) -> {
+                    gpaIndex.update(student);
+                    nameIndex.update(student);
+                    notifyChanged(MutationListener.Operation.CREATE_STUDENT, student);
+                    return student;
+                });
+                transcriptCache.invalidate(studentId);
+            } finally {
+                notifyCompleted();
+            }
+            return student;
+        });
+    }
 
-        Student student = new Student.Builder()
-                .studentId(studentId)
-                .firstName(firstName)
-                .lastName(lastName)
-                .email(email)
-                .phoneNumber(phoneNumber)
-                .address(address)
-                .dateOfBirth(dateOfBirth)
-                .enrollmentDate(enrollmentDate)
-                .status(StudentStatus.ACTIVE)
-                .build();
+    /**
+     * Adds an existing student record, e.g. one loaded from a data file
+     */
+    public void addStudent(Student student) {
+        METRICS.time("StudentService.addStudent", () -> {
+            students.compute(student.getStudentId(), (id, existing) -> {
+                gpaIndex.update(student);
+                nameIndex.update(student);
+                return student;
+            });
+            transcriptCache.invalidate(student.getStudentId());
+        });
+    }
 
-        students.put(studentId, student);
-        return student;
+    /**
+     * Removes all students, e.g. before loading a restored data set. Not
+     * safe against concurrent changes.
+     */
+    public void clear() {
+        METRICS.time("StudentService.clear", () -> {
+            students.clear();
+            gpaIndex.rebuild(List.of(), Semester.current());
+            nameIndex.clear();
+            transcriptCache.invalidateAll();
+        });
     }
 
     /**
@@ -50,185 +123,244 @@ public class StudentService {
      */
     public Student updateStudent(String studentId, String firstName, String lastName,
             String email, String phoneNumber, String address) {
-        Student existing = getStudentById(studentId);
-
-        Student updated = new Student.Builder()
-                .studentId(studentId)
-                .firstName(firstName)
-                .lastName(lastName)
-                .email(email)
-                .phoneNumber(phoneNumber)
-                .address(address)
-                .dateOfBirth(existing.getDateOfBirth())
-                .enrollmentDate(existing.getEnrollmentDate())
-                .status(existing.getStatus())
-                .enrollments(existing.getEnrollments())
-                .gpaHistory(existing.getGpaHistory())
-                .build();
+        return METRICS.time("StudentService.updateStudent", () -> {
+            Student updated;
+            try {
+                updated = students.computeIfPresent(studentId, (id, existing) -> {
+                    Student student = new Student.Builder()
+                            .studentId(studentId)
+                            .firstName(firstName)
+                            .lastName(lastName)
+                            .email(email)
+                            .phoneNumber(phoneNumber)
+                            .address(address)
+                            .dateOfBirth(existing.getDateOfBirth())
+                            .enrollmentDate(existing.getEnrollmentDate())
+                            .status(existing.getStatus())
+                            .enrollments(existing.getEnrollments())
+                            .gpaHistory(existing.getGpaHistory())
+                            .build();
+                    nameIndex.update(student);
+                    notifyChanged(MutationListener.Operation.UPDATE_STUDENT, student);
+                    return student;
+                });
+                transcriptCache.invalidate(studentId);
+            } finally {
+                notifyCompleted();
+            }
 
-        students.put(studentId, updated);
-        return updated;
+            if (updated == null) {
+                throw new StudentNotFoundException("Student not found with ID: " + studentId);
+            }
+            return updated;
+        });
     }
 
     /**
      * Retrieves student by ID
      */
     public Student getStudentById(String studentId) {
-        Student student = students.get(studentId);
-        if (student == null) {
-            throw new StudentNotFoundException("Student not found with ID: " + studentId);
-        }
-        return student;
+        return METRICS.time("StudentService.getStudentById", () -> {
+            Student student = students.get(studentId);
+            if (student == null) {
+                throw new StudentNotFoundException("Student not found with ID: " + studentId);
+            }
+            return student;
+        });
     }
 
     /**
      * Lists all students with optional filtering using functional programming
      */
     public List<Student> getAllStudents(Predicate<Student> filter) {
-        return students.values().stream()
+        return METRICS.time("StudentService.getAllStudents(filter)", () -> students.values().stream()
                 .filter(filter)
                 .sorted(Comparator.comparing(Student::getLastName)
                         .thenComparing(Student::getFirstName))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
      * Lists all students
      */
     public List<Student> getAllStudents() {
-        return getAllStudents(student -> true);
+        return METRICS.time("StudentService.getAllStudents", () -> getAllStudents(student -> true));
     }
 
     /**
-     * Searches students by name using functional programming
+     * Searches students by name using the name index; matches are
+     * substrings of the first, last or full name, ignoring case
      */
     public List<Student> searchStudentsByName(String name) {
-        String searchTerm = name.toLowerCase();
-        return students.values().stream()
-                .filter(student -> student.getFirstName().toLowerCase().contains(searchTerm) ||
-                        student.getLastName().toLowerCase().contains(searchTerm) ||
-                        (student.getFirstName() + " " + student.getLastName()).toLowerCase().contains(searchTerm))
+        return METRICS.time("StudentService.searchStudentsByName", () -> nameIndex.search(name).stream()
+                .map(students::get)
+                .filter(Objects::nonNull)
                 .sorted(Comparator.comparing(Student::getLastName)
                         .thenComparing(Student::getFirstName))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
      * Filters students by status using functional programming
      */
     public List<Student> getStudentsByStatus(StudentStatus status) {
-        return getAllStudents(student -> student.getStatus() == status);
+        return METRICS.time("StudentService.getStudentsByStatus",
+                () -> getAllStudents(student -> student.getStatus() == status));
     }
 
     /**
-     * Filters students by GPA range using functional programming
+     * Filters students by GPA range using the sorted GPA index
      */
     public List<Student> getStudentsByGPARange(double minGPA, double maxGPA) {
-        return getAllStudents(student -> {
-            double gpa = student.calculateCurrentGPA();
-            return gpa >= minGPA && gpa <= maxGPA;
-        });
+        return METRICS.time("StudentService.getStudentsByGPARange", () -> currentGpaIndex()
+                .range(minGPA, maxGPA).stream()
+                .map(students::get)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(Student::getLastName)
+                        .thenComparing(Student::getFirstName))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Gets the highest-GPA students, best first, using the sorted GPA index
+     */
+    public List<Student> getTopStudentsByGPA(int limit) {
+        return METRICS.time("StudentService.getTopStudentsByGPA", () -> currentGpaIndex().top(limit).stream()
+                .map(students::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
     }
 
     /**
      * Deactivates a student (soft delete)
      */
     public void deactivateStudent(String studentId) {
-        Student student = getStudentById(studentId);
-        Student deactivated = new Student.Builder()
-                .studentId(student.getStudentId())
-                .firstName(student.getFirstName())
-                .lastName(student.getLastName())
-                .email(student.getEmail())
-                .phoneNumber(student.getPhoneNumber())
-                .address(student.getAddress())
-                .dateOfBirth(student.getDateOfBirth())
-                .enrollmentDate(student.getEnrollmentDate())
-                .status(StudentStatus.INACTIVE)
-                .enrollments(student.getEnrollments())
-                .gpaHistory(student.getGpaHistory())
-                .build();
+        METRICS.time("StudentService.deactivateStudent", () -> {
+            Student deactivated;
+            try {
+                deactivated = students.computeIfPresent(studentId, (id, student) -> {
+                    Student inactive = new Student.Builder()
+                            .studentId(student.getStudentId())
+                            .firstName(student.getFirstName())
+                            .lastName(student.getLastName())
+                            .email(student.getEmail())
+                            .phoneNumber(student.getPhoneNumber())
+                            .address(student.getAddress())
+                            .dateOfBirth(student.getDateOfBirth())
+                            .enrollmentDate(student.getEnrollmentDate())
+                            .status(StudentStatus.INACTIVE)
+                            .enrollments(student.getEnrollments())
+                            .gpaHistory(student.getGpaHistory())
+                            .build();
+                    notifyChanged(MutationListener.Operation.DEACTIVATE_STUDENT, inactive);
+                    return inactive;
+                });
+                transcriptCache.invalidate(studentId);
+            } finally {
+                notifyCompleted();
+            }
 
-        students.put(studentId, deactivated);
+            if (deactivated == null) {
+                throw new StudentNotFoundException("Student not found with ID: " + studentId);
+            }
+        });
     }
 
     /**
      * Enrolls student in a course
      */
     public void enrollStudentInCourse(String studentId, String courseCode, Semester semester) {
-        Student student = getStudentById(studentId);
+        METRICS.time("StudentService.enrollStudentInCourse", () -> {
+            Student student = getStudentById(studentId);
 
-        if (!student.getStatus().canEnroll()) {
-            throw new InvalidEnrollmentException("Student cannot enroll: " + student.getStatus());
-        }
+            if (!student.getStatus().canEnroll()) {
+                throw new InvalidEnrollmentException("Student cannot enroll: " + student.getStatus());
+            }
 
-        enrollmentService.enrollStudent(student, courseCode, semester);
+            enrollmentService.enrollStudent(student, courseCode, semester);
+        });
     }
 
     /**
-     * Generates student transcript using functional programming
+     * Records a new or changed enrollment on the stored student so GPA and
+     * credit totals reflect it
      */
-    public String generateTranscript(String studentId) {
-        Student student = getStudentById(studentId);
-
-        StringBuilder transcript = new StringBuilder();
-        transcript.append("=".repeat(60)).append("\n");
-        transcript.append("OFFICIAL TRANSCRIPT\n");
-        transcript.append("=".repeat(60)).append("\n");
-        transcript.append("Student: ").append(student.getFirstName()).append(" ").append(student.getLastName())
-                .append("\n");
-        transcript.append("ID: ").append(student.getStudentId()).append("\n");
-        transcript.append("Enrollment Date: ").append(student.getEnrollmentDate()).append("\n");
-        transcript.append("=".repeat(60)).append("\n\n");
-
-        // Group enrollments by semester
-        Map<Semester, List<Enrollment>> enrollmentsBySemester = student.getEnrollments().stream()
-                .collect(Collectors.groupingBy(Enrollment::getSemester,
-                        TreeMap::new, // Maintains chronological order
-                        Collectors.toList()));
-
-        for (Map.Entry<Semester, List<Enrollment>> entry : enrollmentsBySemester.entrySet()) {
-            Semester semester = entry.getKey();
-            List<Enrollment> enrollments = entry.getValue();
-
-            transcript.append(semester).append("\n");
-            transcript.append("-".repeat(40)).append("\n");
-
-            double semesterGPA = enrollments.stream()
-                    .filter(e -> e.getGrade() != null && e.getGrade().countsTowardsGPA())
-                    .mapToDouble(Enrollment::getQualityPoints)
-                    .sum()
-                    / enrollments.stream()
-                            .filter(e -> e.getGrade() != null && e.getGrade().countsTowardsGPA())
-                            .mapToInt(e -> e.getCourse().getCredits())
-                            .sum();
-
-            transcript.append(String.format("Semester GPA: %.2f\n", semesterGPA));
-            transcript.append("\n");
-
-            for (Enrollment enrollment : enrollments) {
-                transcript.append(String.format("%-10s %-30s %3d %s\n",
-                        enrollment.getCourse().getCourseCode(),
-                        enrollment.getCourse().getCourseName(),
-                        enrollment.getCourse().getCredits(),
-                        enrollment.getGrade() != null ? enrollment.getGrade() : "IP"));
-            }
-            transcript.append("\n");
+    public void applyEnrollment(Enrollment enrollment) {
+        METRICS.time("StudentService.applyEnrollment", () -> {
+            String studentId = enrollment.getStudent().getStudentId();
+            students.computeIfPresent(studentId, (id, student) -> {
+                Student updated = student.withEnrollment(enrollment);
+                gpaIndex.update(updated);
+                return updated;
+            });
+            transcriptCache.invalidate(studentId);
+        });
+    }
+
+    /**
+     * Replaces every stored student's enrollments with those held by the
+     * enrollment service, in one pass after a bulk load
+     */
+    public void attachEnrollments(EnrollmentService source) {
+        METRICS.time("StudentService.attachEnrollments", () -> {
+            students.replaceAll((id, student) -> {
+                Student updated = student.withEnrollments(source.getEnrollmentsByStudent(id));
+                gpaIndex.update(updated);
+                return updated;
+            });
+            transcriptCache.invalidateAll();
+        });
+    }
+
+    /**
+     * Gets the GPA index, rebuilding it if the current semester has changed
+     */
+    private GpaIndex currentGpaIndex() {
+        Semester current = Semester.current();
+        if (gpaIndex.isStale(current)) {
+            gpaIndex.rebuild(students.values(), current);
         }
+        return gpaIndex;
+    }
 
-        transcript.append("=".repeat(60)).append("\n");
-        transcript.append(String.format("Overall GPA: %.2f\n", student.calculateCurrentGPA()));
-        transcript.append(String.format("Total Credits: %d\n", student.getTotalCreditsEarned()));
-        transcript.append("=".repeat(60)).append("\n");
+    /**
+     * Generates student transcript, served from the transcript cache when
+     * the student has not changed since it was last generated
+     */
+    public String generateTranscript(String studentId) {
+        return METRICS.time("StudentService.generateTranscript",
+                () -> currentTranscriptCache().get(studentId, this::renderTranscript));
+    }
+
+    /**
+     * Gets transcript cache hit, miss and eviction counts
+     */
+    public Map<String, Object> getCacheStatistics() {
+        return Map.of("transcripts", transcriptCache.getStatistics());
+    }
+
+    /**
+     * Gets the transcript cache, emptying it if the current semester, and
+     * with it the overall GPA on every transcript, has changed
+     */
+    private ViewCache<String, String> currentTranscriptCache() {
+        Semester current = Semester.current();
+        if (!current.equals(transcriptSemester)) {
+            transcriptCache.invalidateAll();
+            transcriptSemester = current;
+        }
+        return transcriptCache;
+    }
 
-        return transcript.toString();
+    private String renderTranscript(String studentId) {
+        return TranscriptWriter.render(getStudentById(studentId));
     }
 
     /**
      * Gets student statistics using functional programming
      */
     public Map<String, Object> getStudentStatistics() {
-        return Map.of(
+        return METRICS.time("StudentService.getStudentStatistics", () -> Map.of(
                 "totalStudents", students.size(),
                 "activeStudents", getStudentsByStatus(StudentStatus.ACTIVE).size(),
                 "graduatedStudents", getStudentsByStatus(StudentStatus.GRADUATED).size(),
@@ -237,6 +369,18 @@ public class StudentService {
                         .average().orElse(0.0),
                 "totalCreditsEarned", students.values().stream()
                         .mapToInt(Student::getTotalCreditsEarned)
-                        .sum());
+                        .sum()));
+    }
+
+    private void notifyChanged(MutationListener.Operation operation, Student student) {
+        for (MutationListener listener : listeners) {
+            listener.studentChanged(operation, student);
+        }
+    }
+
+    private void notifyCompleted() {
+        for (MutationListener listener : listeners) {
+            listener.mutationCompleted();
+        }
     }
 }
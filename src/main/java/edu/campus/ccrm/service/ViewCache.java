@@ -0,0 +1,131 @@
+package edu.campus.ccrm.service;
+
+import edu.campus.ccrm.config.ApplicationConfig;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of derived views, such as rendered transcripts, with
+ * least-recently-used eviction and a time to live. Sized and enabled by
+ * {@code cache.enabled}, {@code cache.size} and {@code cache.ttl.minutes}.
+ *
+ * <p>
+ * Values are computed outside the lock. The owner invalidates keys when
+ * the data behind them changes; a value whose computation overlapped an
+ * invalidation is returned but not stored, so a stale view is never
+ * cached.
+ */
+final class ViewCache<K, V> {
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    ViewCache() {
+        this(ApplicationConfig.getInstance());
+    }
+
+    private ViewCache(ApplicationConfig config) {
+        this(config.isCacheEnabled(), config.getCacheSize(), config.getCacheTtlMinutes() * 60_000_000_000L);
+    }
+
+    /**
+     * @param ttlNanos how long a value is served after it is computed; zero
+     *                 or less keeps values until evicted or invalidated
+     */
+    ViewCache(boolean enabled, int maxSize, long ttlNanos) {
+        this.enabled = enabled && maxSize > 0;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlNanos;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > ViewCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets the cached value for a key, computing and caching it on a miss
+     */
+    V get(K key, Function<? super K, ? extends V> loader) {
+        if (!enabled) {
+            return loader.apply(key);
+        }
+
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (ttlNanos <= 0 || System.nanoTime() - entry.createdNanos < ttlNanos) {
+                    hits++;
+                    return entry.value;
+                }
+                entries.remove(key);
+                expirations++;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        V value = loader.apply(key);
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                entries.put(key, new Entry<>(value, System.nanoTime()));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops the cached value for a key after the data behind it changed
+     */
+    synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    /**
+     * Drops every cached value, e.g. after a bulk load
+     */
+    synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    /**
+     * Gets size, hit and miss counts, hit rate, evictions and expirations
+     */
+    synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enabled", enabled);
+        statistics.put("size", entries.size());
+        statistics.put("maxSize", maxSize);
+        statistics.put("hits", hits);
+        statistics.put("misses", misses);
+        statistics.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        statistics.put("evictions", evictions);
+        statistics.put("expirations", expirations);
+        return statistics;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long createdNanos;
+
+        Entry(V value, long createdNanos) {
+            this.value = value;
+            this.createdNanos = createdNanos;
+        }
+    }
+}
@@ -0,0 +1,522 @@
+package edu.campus.ccrm.util;
+
+import edu.campus.ccrm.domain.*;
+import edu.campus.ccrm.domain.enums.*;
+import edu.campus.ccrm.exception.DataExportException;
+import edu.campus.ccrm.io.FileDataManager;
+import edu.campus.ccrm.io.TransferReport;
+import edu.campus.ccrm.service.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates seeded, realistic synthetic campus data for load testing and
+ * capacity planning.
+ *
+ * <p>
+ * Courses are grouped by department into prerequisite chains (101, 201,
+ * 301, ...), each course requiring the previous one in its chain. Every
+ * student enters in one of the last {@code semesters} semesters and takes
+ * a few courses each term up to the current one, moving along chains only
+ * after passing the prerequisite. Past enrollments carry grades drawn from
+ * a configurable distribution; current-semester enrollments are active.
+ * The current semester is a fixed setting rather than today's, so a seed
+ * gives the same data whenever it is run.
+ *
+ * <p>
+ * Each student is generated from its own random stream derived from the
+ * seed and its index, so output is identical however the work is split
+ * across threads. Students are produced in parallel chunks and handed on
+ * in order, so data sets far larger than memory can be streamed to CSV.
+ */
+public final class DatasetGenerator {
+    private static final int CHUNK_SIZE = 1024;
+    private static final int MAX_TERM_CREDITS = 18;
+    private static final Semester DEFAULT_CURRENT_SEMESTER = new Semester(2025, Semester.Season.FALL);
+
+    private static final String[][] DEPARTMENTS = {
+            { "CS", "Computer Science", "Programming", "Data Structures", "Algorithms", "Operating Systems",
+                    "Databases", "Networks", "Compilers", "Machine Learning" },
+            { "MATH", "Mathematics", "Calculus", "Linear Algebra", "Discrete Mathematics", "Real Analysis",
+                    "Probability", "Number Theory", "Topology", "Statistics" },
+            { "PHYS", "Physics", "Mechanics", "Electromagnetism", "Thermodynamics", "Optics",
+                    "Quantum Physics", "Relativity", "Astrophysics", "Solid State Physics" },
+            { "CHEM", "Chemistry", "General Chemistry", "Organic Chemistry", "Inorganic Chemistry",
+                    "Physical Chemistry", "Biochemistry", "Analytical Chemistry", "Polymers", "Spectroscopy" },
+            { "BIO", "Biology", "Cell Biology", "Genetics", "Ecology", "Microbiology", "Physiology",
+                    "Evolution", "Neuroscience", "Immunology" },
+            { "ECON", "Economics", "Microeconomics", "Macroeconomics", "Econometrics", "Game Theory",
+                    "Public Finance", "Labor Economics", "Development Economics", "Trade" },
+            { "ENG", "English", "Composition", "British Literature", "American Literature", "Poetry",
+                    "Creative Writing", "Rhetoric", "Drama", "Literary Theory" },
+            { "HIST", "History", "World History", "Ancient Civilizations", "Medieval Europe", "Modern Asia",
+                    "American History", "Economic History", "History of Science", "Historiography" } };
+
+    private static final String[] FIRST_NAMES = {
+            "Aarav", "Priya", "John", "Maria", "Wei", "Ana", "Omar", "Zoe", "Ravi", "Kim", "Lucas", "Fatima",
+            "Noah", "Mei", "Ivan", "Sara", "Diego", "Aisha", "Liam", "Yuki", "Emma", "Arjun", "Chloe", "Kofi",
+            "Olivia", "Mateo", "Ines", "Hiro", "Leila", "Sven", "Nadia", "Tomas" };
+    private static final String[] LAST_NAMES = {
+            "Sharma", "Smith", "Garcia", "Nguyen", "Patel", "Lee", "Muller", "Johnson", "Khan", "Silva", "Chen",
+            "Brown", "Rossi", "Tanaka", "Kowalski", "Okafor", "Andersson", "Haddad", "Costa", "Wilson", "Kim",
+            "Martin", "Singh", "Ivanova", "Dubois", "Mensah", "Santos", "Novak", "Yilmaz", "Moreau" };
+    private static final String[] STREETS = {
+            "Oak", "Maple", "Cedar", "Elm", "Pine", "Lake", "Hill", "Park", "River", "College" };
+
+    private static final Map<Grade, Double> DEFAULT_GRADE_WEIGHTS = defaultGradeWeights();
+
+    private final long seed;
+    private final int studentCount;
+    private final int courseCount;
+    private final int semesterCount;
+    private final int coursesPerSemester;
+    private final int chainLength;
+    private final Grade[] grades;
+    private final double[] cumulativeWeights;
+    private final List<Course> courses;
+    private final List<Semester> semesters;
+    private final Map<String, List<Integer>> chainStartsByDepartment;
+
+    private DatasetGenerator(Builder builder) {
+        this.seed = builder.seed;
+        this.studentCount = builder.studentCount;
+        this.courseCount = builder.courseCount;
+        this.semesterCount = builder.semesterCount;
+        this.coursesPerSemester = builder.coursesPerSemester;
+        this.chainLength = builder.chainLength;
+
+        this.grades = builder.gradeWeights.keySet().toArray(new Grade[0]);
+        this.cumulativeWeights = new double[grades.length];
+        double total = builder.gradeWeights.values().stream().mapToDouble(Double::doubleValue).sum();
+        double running = 0;
+        for (int i = 0; i < grades.length; i++) {
+            running += builder.gradeWeights.get(grades[i]) / total;
+            cumulativeWeights[i] = running;
+        }
+
+        this.semesters = new ArrayList<>();
+        Semester semester = builder.currentSemester;
+        for (int i = 0; i < semesterCount; i++) {
+            semesters.add(0, semester);
+            semester = semester.previous();
+        }
+
+        this.chainStartsByDepartment = new HashMap<>();
+        this.courses = generateCourses();
+    }
+
+    /**
+     * Gets the generated course catalog, in chain order
+     */
+    public List<Course> getCourses() {
+        return Collections.unmodifiableList(courses);
+    }
+
+    /**
+     * Generates the student with the given index, without enrollments
+     */
+    public Student generateStudent(int index) {
+        return generateStudent(index, random(index));
+    }
+
+    /**
+     * Generates the enrollments of the student with the given index
+     */
+    public List<Enrollment> generateEnrollments(int index) {
+        SplittableRandom random = random(index);
+        return generateEnrollments(generateStudent(index, random), random);
+    }
+
+    /**
+     * Loads the data set into the services, generating and loading chunks
+     * of students in parallel. Listeners are not notified, as with a data
+     * file load.
+     *
+     * @return the number of students, courses and enrollments loaded
+     */
+    public Map<String, Integer> populate(StudentService studentService, CourseService courseService,
+            EnrollmentService enrollmentService) {
+        courses.forEach(courseService::addCourse);
+
+        int enrollmentCount = IntStream.range(0, chunkCount()).parallel().map(chunk -> {
+            int loaded = 0;
+            for (int index = chunk * CHUNK_SIZE; index < Math.min(studentCount, (chunk + 1) * CHUNK_SIZE); index++) {
+                SplittableRandom random = random(index);
+                Student student = generateStudent(index, random);
+                studentService.addStudent(student);
+                for (Enrollment enrollment : generateEnrollments(student, random)) {
+                    enrollmentService.loadEnrollment(enrollment);
+                    loaded++;
+                }
+            }
+            return loaded;
+        }).sum();
+
+        studentService.attachEnrollments(enrollmentService);
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("students", studentCount);
+        counts.put("courses", courses.size());
+        counts.put("enrollments", enrollmentCount);
+        return counts;
+    }
+
+    /**
+     * Streams the data set into the data directory's CSV files. The three
+     * files are written concurrently while chunks of rows are generated in
+     * parallel ahead of the writers.
+     *
+     * @return per-file record counts and timings
+     */
+    public TransferReport writeCsv(FileDataManager fileDataManager) throws DataExportException {
+        try {
+            fileDataManager.initializeDataDirectory();
+        } catch (IOException e) {
+            throw new DataExportException("Failed to create data directory", e);
+        }
+
+        return fileDataManager.exportAllDataParallel(
+                new ChunkIterator<>(chunk -> chunkIndexes(chunk).mapToObj(this::generateStudent)
+                        .collect(Collectors.toList())),
+                courses.iterator(),
+                new ChunkIterator<>(chunk -> {
+                    List<Enrollment> enrollments = new ArrayList<>();
+                    chunkIndexes(chunk).forEach(index -> enrollments.addAll(generateEnrollments(index)));
+                    return enrollments;
+                }));
+    }
+
+    // Private helper methods
+
+    private List<Course> generateCourses() {
+        SplittableRandom random = new SplittableRandom(mix(seed));
+        List<Course> catalog = new ArrayList<>(courseCount);
+        int chainCount = (courseCount + chainLength - 1) / chainLength;
+
+        for (int chain = 0; chain < chainCount; chain++) {
+            String[] department = DEPARTMENTS[chain % DEPARTMENTS.length];
+            int series = chain / DEPARTMENTS.length;
+            String topic = department[2 + series % (department.length - 2)];
+            String suffix = series < department.length - 2 ? "" : " " + (series / (department.length - 2) + 1);
+            String instructor = "Dr. " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            int credits = random.nextInt(4) == 0 ? 4 : 3;
+            chainStartsByDepartment.computeIfAbsent(department[0], k -> new ArrayList<>()).add(catalog.size());
+
+            String previous = null;
+            for (int level = 1; level <= chainLength && catalog.size() < courseCount; level++) {
+                String courseCode = String.format("%s%d%02d", department[0], level, series + 1);
+                Course course = new Course.Builder()
+                        .courseCode(courseCode)
+                        .courseName(topic + suffix + " " + toRoman(level))
+                        .description(level == 1
+                                ? "Introduction to " + topic.toLowerCase() + " for " + department[1] + " students"
+                                : "Continues " + previous + " with advanced topics in " + topic.toLowerCase())
+                        .credits(credits)
+                        .department(department[1])
+                        .instructor(instructor)
+                        .status(CourseStatus.ACTIVE)
+                        .prerequisites(previous == null ? Set.of() : Set.of(previous))
+                        .build();
+                catalog.add(course);
+                previous = courseCode;
+            }
+        }
+        return catalog;
+    }
+
+    private Student generateStudent(int index, SplittableRandom random) {
+        String studentId = String.format("S%07d", index + 1);
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        Semester entry = semesters.get(random.nextInt(semesterCount));
+        LocalDate enrollmentDate = startOf(entry);
+
+        return new Student.Builder()
+                .studentId(studentId)
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(firstName.toLowerCase() + "." + lastName.toLowerCase() + (index + 1) + "@campus.edu")
+                .phoneNumber(String.format("555-%03d-%04d", random.nextInt(1000), random.nextInt(10000)))
+                .address((1 + random.nextInt(999)) + " " + STREETS[random.nextInt(STREETS.length)] + " Street")
+                .dateOfBirth(enrollmentDate.minusYears(17 + random.nextInt(6)).minusDays(random.nextInt(365)))
+                .enrollmentDate(enrollmentDate)
+                .status(StudentStatus.ACTIVE)
+                .build();
+    }
+
+    /**
+     * Walks a student through the semesters since entry. Each term the
+     * student continues a few chains, mostly in one major department, and
+     * only moves on in a chain after passing its current course.
+     */
+    private List<Enrollment> generateEnrollments(Student student, SplittableRandom random) {
+        List<Enrollment> enrollments = new ArrayList<>();
+        Semester current = semesters.get(semesterCount - 1);
+        List<Integer> majorChains = chainStartsByDepartment.get(
+                DEPARTMENTS[random.nextInt(DEPARTMENTS.length)][0]);
+        Map<Integer, Integer> progress = new HashMap<>();
+        int chainCount = (courseCount + chainLength - 1) / chainLength;
+
+        for (Semester semester = Semester.of(student.getEnrollmentDate()); semester.compareTo(current) <= 0;
+                semester = semester.next()) {
+            int load = Math.max(1, coursesPerSemester - 1 + random.nextInt(3));
+            Set<Integer> chosen = new HashSet<>();
+            int credits = 0;
+
+            for (int attempt = 0; chosen.size() < load && attempt < load * 4; attempt++) {
+                int chainStart = random.nextInt(3) > 0 && majorChains != null
+                        ? majorChains.get(random.nextInt(majorChains.size()))
+                        : random.nextInt(chainCount) * chainLength;
+                int courseIndex = chainStart + progress.getOrDefault(chainStart, 0);
+                if (courseIndex >= courses.size() || courseIndex >= chainStart + chainLength
+                        || !chosen.add(chainStart)) {
+                    continue;
+                }
+
+                Course course = courses.get(courseIndex);
+                if (credits + course.getCredits() > MAX_TERM_CREDITS) {
+                    break;
+                }
+                credits += course.getCredits();
+                boolean active = semester.equals(current);
+                Grade grade = active ? null : drawGrade(random);
+                EnrollmentStatus status = active ? EnrollmentStatus.ACTIVE
+                        : grade == Grade.WITHDRAWAL ? EnrollmentStatus.WITHDRAWN
+                        : grade == Grade.INCOMPLETE ? EnrollmentStatus.INCOMPLETE
+                        : EnrollmentStatus.COMPLETED;
+
+                enrollments.add(new Enrollment.Builder()
+                        .enrollmentId(student.getStudentId() + "_" + course.getCourseCode() + "_"
+                                + semester.getSeason() + "_" + semester.getYear())
+                        .student(student)
+                        .course(course)
+                        .semester(semester)
+                        .enrollmentDate(startOf(semester))
+                        .grade(grade)
+                        .status(status)
+                        .build());
+
+                if (grade != null && grade.isPassing()) {
+                    progress.merge(chainStart, 1, Integer::sum);
+                }
+            }
+        }
+        return enrollments;
+    }
+
+    private Grade drawGrade(SplittableRandom random) {
+        double draw = random.nextDouble();
+        for (int i = 0; i < grades.length - 1; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return grades[i];
+            }
+        }
+        return grades[grades.length - 1];
+    }
+
+    private SplittableRandom random(int index) {
+        return new SplittableRandom(mix(seed + mix(index + 1L)));
+    }
+
+    private int chunkCount() {
+        return (studentCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    private IntStream chunkIndexes(int chunk) {
+        return IntStream.range(chunk * CHUNK_SIZE, Math.min(studentCount, (chunk + 1) * CHUNK_SIZE));
+    }
+
+    private static LocalDate startOf(Semester semester) {
+        return switch (semester.getSeason()) {
+            case SPRING -> LocalDate.of(semester.getYear(), 1, 15);
+            case SUMMER -> LocalDate.of(semester.getYear(), 6, 1);
+            case FALL -> LocalDate.of(semester.getYear(), 9, 1);
+        };
+    }
+
+    private static String toRoman(int level) {
+        String[] numerals = { "I", "II", "III", "IV", "V", "VI", "VII", "VIII", "IX" };
+        return level <= numerals.length ? numerals[level - 1] : String.valueOf(level);
+    }
+
+    /**
+     * Scrambles a seed so nearby indexes get unrelated random streams
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static Map<Grade, Double> defaultGradeWeights() {
+        Map<Grade, Double> weights = new EnumMap<>(Grade.class);
+        weights.put(Grade.A_PLUS, 3.0);
+        weights.put(Grade.A, 14.0);
+        weights.put(Grade.A_MINUS, 11.0);
+        weights.put(Grade.B_PLUS, 12.0);
+        weights.put(Grade.B, 14.0);
+        weights.put(Grade.B_MINUS, 9.0);
+        weights.put(Grade.C_PLUS, 8.0);
+        weights.put(Grade.C, 8.0);
+        weights.put(Grade.C_MINUS, 4.0);
+        weights.put(Grade.D_PLUS, 2.0);
+        weights.put(Grade.D, 3.0);
+        weights.put(Grade.F, 6.0);
+        weights.put(Grade.WITHDRAWAL, 5.0);
+        weights.put(Grade.INCOMPLETE, 1.0);
+        return weights;
+    }
+
+    /**
+     * Iterates over rows generated a window of chunks at a time, the
+     * chunks of each window in parallel
+     */
+    private final class ChunkIterator<T> implements Iterator<T> {
+        private final IntFunction<List<T>> generator;
+        private final int window = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+        private List<List<T>> chunks = List.of();
+        private int chunkIndex;
+        private int rowIndex;
+        private int nextChunk;
+
+        ChunkIterator(IntFunction<List<T>> generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (true) {
+                if (chunkIndex < chunks.size()) {
+                    if (rowIndex < chunks.get(chunkIndex).size()) {
+                        return true;
+                    }
+                    chunkIndex++;
+                    rowIndex = 0;
+                } else if (nextChunk < chunkCount()) {
+                    int end = Math.min(chunkCount(), nextChunk + window);
+                    chunks = IntStream.range(nextChunk, end).parallel()
+                            .mapToObj(generator)
+                            .collect(Collectors.toList());
+                    chunkIndex = 0;
+                    nextChunk = end;
+                } else {
+                    return false;
+                }
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return chunks.get(chunkIndex).get(rowIndex++);
+        }
+    }
+
+    /**
+     * Builder for generator settings
+     */
+    public static class Builder {
+        private long seed = 42;
+        private int studentCount = 1000;
+        private int courseCount = 80;
+        private int semesterCount = 8;
+        private int coursesPerSemester = 4;
+        private int chainLength = 4;
+        private Semester currentSemester = DEFAULT_CURRENT_SEMESTER;
+        private Map<Grade, Double> gradeWeights = new EnumMap<>(DEFAULT_GRADE_WEIGHTS);
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder students(int studentCount) {
+            this.studentCount = studentCount;
+            return this;
+        }
+
+        public Builder courses(int courseCount) {
+            this.courseCount = courseCount;
+            return this;
+        }
+
+        /**
+         * Sets how many semesters, up to the current one, students may
+         * have entered in
+         */
+        public Builder semesters(int semesterCount) {
+            this.semesterCount = semesterCount;
+            return this;
+        }
+
+        /**
+         * Sets the semester treated as current: the last one generated,
+         * whose enrollments are still active. Defaults to Fall 2025.
+         */
+        public Builder currentSemester(Semester currentSemester) {
+            this.currentSemester = currentSemester;
+            return this;
+        }
+
+        /**
+         * Sets the typical course load; each term varies by one either way
+         */
+        public Builder coursesPerSemester(int coursesPerSemester) {
+            this.coursesPerSemester = coursesPerSemester;
+            return this;
+        }
+
+        /**
+         * Sets the number of courses in each prerequisite chain
+         */
+        public Builder prerequisiteChainLength(int chainLength) {
+            this.chainLength = chainLength;
+            return this;
+        }
+
+        /**
+         * Replaces the grade distribution; weights need not sum to one
+         */
+        public Builder gradeDistribution(Map<Grade, Double> gradeWeights) {
+            this.gradeWeights = new EnumMap<>(gradeWeights);
+            return this;
+        }
+
+        public DatasetGenerator build() {
+            validate();
+            return new DatasetGenerator(this);
+        }
+
+        private void validate() {
+            if (studentCount < 0) {
+                throw new IllegalArgumentException("Student count cannot be negative");
+            }
+            if (courseCount <= 0) {
+                throw new IllegalArgumentException("At least one course is required");
+            }
+            if (semesterCount <= 0) {
+                throw new IllegalArgumentException("At least one semester is required");
+            }
+            if (currentSemester == null) {
+                throw new IllegalArgumentException("Current semester is required");
+            }
+            if (coursesPerSemester <= 0 || coursesPerSemester > 6) {
+                throw new IllegalArgumentException("Courses per semester must be between 1 and 6");
+            }
+            if (chainLength <= 0 || chainLength > 9) {
+                throw new IllegalArgumentException("Prerequisite chain length must be between 1 and 9");
+            }
+            if (gradeWeights.isEmpty() || gradeWeights.values().stream().anyMatch(weight -> weight < 0)
+                    || gradeWeights.values().stream().mapToDouble(Double::doubleValue).sum() <= 0) {
+                throw new IllegalArgumentException("Grade weights must be non-negative with a positive total");
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package edu.campus.ccrm.util;
+
+import edu.campus.ccrm.domain.Enrollment;
+import edu.campus.ccrm.domain.Student;
+import edu.campus.ccrm.domain.enums.Semester;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Writes official student transcripts straight to an {@link Appendable}.
+ * Rule lines are built once and columns are padded by hand, so a
+ * transcript costs one sort of the student's enrollments and no
+ * per-line formatting. Semester GPAs come from the student's precomputed
+ * semester totals. The output keeps the original {@code String.format}
+ * layout.
+ */
+public final class TranscriptWriter {
+    private static final String RULE = "=".repeat(60) + "\n";
+    private static final String SEMESTER_RULE = "-".repeat(40) + "\n";
+    private static final String HEADER = RULE + "OFFICIAL TRANSCRIPT\n" + RULE;
+    private static final String SPACES = " ".repeat(30);
+
+    private static final int CODE_WIDTH = 10;
+    private static final int NAME_WIDTH = 30;
+    private static final int CREDITS_WIDTH = 3;
+
+    private static final Comparator<Enrollment> BY_SEMESTER = Comparator.comparing(Enrollment::getSemester);
+
+    private TranscriptWriter() {
+    }
+
+    /**
+     * Renders a transcript to a string
+     */
+    public static String render(Student student) {
+        StringBuilder transcript = new StringBuilder(1024);
+        try {
+            write(student, transcript);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+            throw new UncheckedIOException(e);
+        }
+        return transcript.toString();
+    }
+
+    /**
+     * Writes a transcript: the student header, then each semester in
+     * chronological order with its GPA and courses, then the overall GPA
+     * and credits earned
+     */
+    public static void write(Student student, Appendable out) throws IOException {
+        out.append(HEADER);
+        out.append("Student: ").append(student.getFirstName()).append(' ').append(student.getLastName()).append('\n');
+        out.append("ID: ").append(student.getStudentId()).append('\n');
+        out.append("Enrollment Date: ").append(String.valueOf(student.getEnrollmentDate())).append('\n');
+        out.append(RULE).append('\n');
+
+        // A stable sort keeps each semester's courses in enrollment set order
+        Enrollment[] enrollments = student.getEnrollments().toArray(new Enrollment[0]);
+        Arrays.sort(enrollments, BY_SEMESTER);
+
+        int start = 0;
+        while (start < enrollments.length) {
+            Semester semester = enrollments[start].getSemester();
+            boolean graded = false;
+            int end = start;
+            while (end < enrollments.length && enrollments[end].getSemester().compareTo(semester) == 0) {
+                Enrollment enrollment = enrollments[end++];
+                graded |= enrollment.getGrade() != null && enrollment.getGrade().countsTowardsGPA();
+            }
+
+            out.append(semester.toString()).append('\n');
+            out.append(SEMESTER_RULE);
+            out.append("Semester GPA: ");
+            if (graded) {
+                appendTwoDecimals(out, student.calculateSemesterGPA(semester));
+            } else {
+                // A semester with no graded courses has always printed as 0/0
+                out.append("NaN");
+            }
+            out.append("\n\n");
+
+            for (int i = start; i < end; i++) {
+                appendCourseLine(out, enrollments[i]);
+            }
+            out.append('\n');
+            start = end;
+        }
+
+        out.append(RULE);
+        out.append("Overall GPA: ");
+        appendTwoDecimals(out, student.calculateCurrentGPA());
+        out.append('\n');
+        out.append("Total Credits: ").append(Integer.toString(student.getTotalCreditsEarned())).append('\n');
+        out.append(RULE);
+    }
+
+    // Private helper methods
+
+    private static void appendCourseLine(Appendable out, Enrollment enrollment) throws IOException {
+        appendLeftAligned(out, enrollment.getCourse().getCourseCode(), CODE_WIDTH);
+        out.append(' ');
+        appendLeftAligned(out, enrollment.getCourse().getCourseName(), NAME_WIDTH);
+        out.append(' ');
+        String credits = Integer.toString(enrollment.getCourse().getCredits());
+        appendPadding(out, CREDITS_WIDTH - credits.length());
+        out.append(credits).append(' ');
+        out.append(enrollment.getGrade() != null ? enrollment.getGrade().toString() : "IP").append('\n');
+    }
+
+    private static void appendLeftAligned(Appendable out, String value, int width) throws IOException {
+        String text = String.valueOf(value);
+        out.append(text);
+        appendPadding(out, width - text.length());
+    }
+
+    private static void appendPadding(Appendable out, int count) throws IOException {
+        if (count > 0) {
+            out.append(SPACES, 0, count);
+        }
+    }
+
+    /**
+     * Appends a value rounded half-up to two decimals, as {@code %.2f} does
+     */
+    private static void appendTwoDecimals(Appendable out, double value) throws IOException {
+        out.append(BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).toPlainString());
+    }
+}